@@ -15,13 +15,21 @@
  */
 package com.hellokaton.anima;
 
+import com.hellokaton.anima.annotation.Sharded;
+import com.hellokaton.anima.cache.EntityCache;
+import com.hellokaton.anima.cache.QueryCache;
+import com.hellokaton.anima.cache.SQLCache;
 import com.hellokaton.anima.core.Atomic;
+import com.hellokaton.anima.core.ReadReplicas;
 import com.hellokaton.anima.core.ResultKey;
+import com.hellokaton.anima.core.TransactionContext;
+import com.hellokaton.anima.core.TransactionOptions;
 import com.hellokaton.anima.core.dml.Delete;
 import com.hellokaton.anima.core.dml.Select;
 import com.hellokaton.anima.core.dml.Update;
 import com.hellokaton.anima.core.functions.TypeFunction;
 import com.hellokaton.anima.enums.ErrorCode;
+import com.hellokaton.anima.enums.ReadBalance;
 import com.hellokaton.anima.core.AnimaQuery;
 import com.hellokaton.anima.dialect.Dialect;
 import com.hellokaton.anima.dialect.MySQLDialect;
@@ -39,14 +47,28 @@ import org.sql2o.quirks.QuirksDetector;
 
 import javax.sql.DataSource;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hellokaton.anima.utils.Functions.*;
 import static java.util.stream.Collectors.joining;
 
 /**
  * Anima
+ * <p>
+ * Each instance has its own database, dialect, caches and transactions. The static methods
+ * work on the default instance set by {@link #open(Sql2o)}, instances made by {@link #create(Sql2o)}
+ * are used through their own methods, e.g. {@link #from(Class)} and {@link #transaction(Runnable)}.
  *
  * @author biezhi
  * @date 2018/3/13
@@ -88,6 +110,76 @@ public class Anima {
      */
     private boolean useSQLLimit = true;
 
+    /**
+     * JDBC fetch size hint used by {@link AnimaQuery#stream()}, 0 means the driver default.
+     */
+    private int fetchSize;
+
+    /**
+     * The maximum number of join keys in one IN query when loading joined models.
+     */
+    private int joinBatchSize = 500;
+
+    /**
+     * The number of rows sent to the database in one JDBC batch by {@link #saveBatch(List)}.
+     */
+    private int maxBatchRecords = 1000;
+
+    /**
+     * Use "INSERT ... VALUES (...), (...)" statements in {@link #saveBatch(List)} instead of JDBC batches.
+     */
+    private boolean useMultiValuesInsert;
+
+    /**
+     * Remember the column values of loaded models, so {@link Model#update()} only writes the changed columns.
+     */
+    private boolean useDirtyTracking;
+
+    /**
+     * Second-level cache of models read by byId and byIds, null disables the cache.
+     */
+    private EntityCache entityCache;
+
+    /**
+     * Cache of the query results of {@link AnimaQuery#cached(java.time.Duration)}.
+     */
+    private QueryCache queryCache = new QueryCache(1024);
+
+    /**
+     * Run the count and data queries of page() at the same time on two connections.
+     */
+    private boolean useConcurrentPage;
+
+    /**
+     * Executor of the queries Anima runs off the calling thread, created on first use.
+     */
+    private volatile ExecutorService executor;
+
+    /**
+     * Read-only databases that reads outside a transaction are sent to.
+     */
+    private ReadReplicas replicas;
+
+    /**
+     * How long reads of a thread stay on the primary after it wrote.
+     */
+    private Duration stickyReadWindow = Duration.ZERO;
+
+    /**
+     * Databases the rows of {@link com.hellokaton.anima.annotation.Sharded} models are split over.
+     */
+    private List<Sql2o> shards = Collections.emptyList();
+
+    /**
+     * The select and count statements cached by query shape, null when disabled.
+     */
+    private SQLCache sqlCache = new SQLCache(1024);
+
+    /**
+     * The transactions of the threads using this instance.
+     */
+    private final TransactionContext context = new TransactionContext();
+
     private static Anima instance;
 
     /**
@@ -112,7 +204,8 @@ public class Anima {
      * @param sql2o sql2o instance
      */
     public Anima(Sql2o sql2o) {
-        open(sql2o);
+        this.sql2o = sql2o;
+        instance = this;
     }
 
     /**
@@ -121,7 +214,7 @@ public class Anima {
      * @param dataSource datasource instance
      */
     public Anima(DataSource dataSource) {
-        open(dataSource);
+        this(new Sql2o(dataSource));
     }
 
     /**
@@ -132,22 +225,59 @@ public class Anima {
      * @param pass database password
      */
     public Anima(String url, String user, String pass) {
-        open(url, user, pass);
+        this(new Sql2o(url, user, pass, QuirksDetector.forURL(url)));
     }
 
     /**
-     * Create anima with Sql2o
+     * Create anima with Sql2o, it becomes the default instance.
      *
      * @param sql2o sql2o instance
      * @return Anima
      */
     public static Anima open(Sql2o sql2o) {
+        Anima anima = create(sql2o);
+        instance = anima;
+        return anima;
+    }
+
+    /**
+     * Create an anima instance with Sql2o that is not the default instance,
+     * so it does not change the database of the static methods.
+     * Models read from or inserted with the instance write back to it with
+     * {@link Model#update()} and {@link Model#delete()}.
+     *
+     * @param sql2o sql2o instance
+     * @return Anima
+     */
+    public static Anima create(Sql2o sql2o) {
+        ifNullThrow(sql2o, new AnimaException(ErrorCode.SQL2O_IS_NULL));
         Anima anima = new Anima();
         anima.setSql2o(sql2o);
-        instance = anima;
         return anima;
     }
 
+    /**
+     * Create an anima instance with datasource that is not the default instance.
+     *
+     * @param dataSource datasource instance
+     * @return Anima
+     */
+    public static Anima create(DataSource dataSource) {
+        return create(new Sql2o(dataSource));
+    }
+
+    /**
+     * Create an anima instance with url and db info that is not the default instance.
+     *
+     * @param url  jdbc url
+     * @param user database username
+     * @param pass database password
+     * @return Anima
+     */
+    public static Anima create(String url, String user, String pass) {
+        return create(new Sql2o(url, user, pass, QuirksDetector.forURL(url)));
+    }
+
     /**
      * Create anima with url, like Sqlite or h2
      *
@@ -214,33 +344,81 @@ public class Anima {
     }
 
     /**
-     * Code that performs a transaction operation.
+     * Code that performs a transaction operation on the default instance.
      *
      * @param runnable the code snippet to execute.
      * @return Atomic
      */
     public static Atomic atomic(Runnable runnable) {
+        return of().transaction(runnable);
+    }
+
+    /**
+     * Code that performs a transaction operation on the default instance with the given propagation,
+     * e.g. {@code atomic(TransactionOptions.nested(), () -> ...)} rolls back only its own work when it fails.
+     *
+     * @param options  propagation, isolation level and read-only hint
+     * @param runnable the code snippet to execute.
+     * @return Atomic
+     */
+    public static Atomic atomic(TransactionOptions options, Runnable runnable) {
+        return of().transaction(options, runnable);
+    }
+
+    /**
+     * Code that performs a transaction operation on this instance,
+     * only the queries of this instance take part in the transaction.
+     * Inside another transaction it joins that one, a failure then rolls back the whole transaction.
+     *
+     * @param runnable the code snippet to execute.
+     * @return Atomic
+     */
+    public Atomic transaction(Runnable runnable) {
+        return this.transaction(TransactionOptions.required(), runnable);
+    }
+
+    /**
+     * Code that performs a transaction operation on this instance with the given propagation,
+     * isolation level and read-only hint, see {@link com.hellokaton.anima.enums.Propagation}.
+     *
+     * @param options  propagation, isolation level and read-only hint
+     * @param runnable the code snippet to execute.
+     * @return Atomic
+     */
+    public Atomic transaction(TransactionOptions options, Runnable runnable) {
+        ifThrow(null == options, new AnimaException("options not be null."));
+        try {
+            AnimaQuery.beginTransaction(this, options);
+        } catch (Exception e) {
+            return Atomic.error(e);
+        }
         try {
-            AnimaQuery.beginTransaction();
             runnable.run();
-            AnimaQuery.commit();
+            AnimaQuery.commit(this);
             return Atomic.ok();
         } catch (Exception e) {
 
             boolean isRollback = ifReturn(
-                    of().rollbackException.isInstance(e),
+                    rollbackException.isInstance(e),
                     () -> {
-                        AnimaQuery.rollback();
+                        AnimaQuery.rollback(this);
                         return true;
                     },
                     () -> false);
 
             return Atomic.error(e).rollback(isRollback);
         } finally {
-            AnimaQuery.endTransaction();
+            AnimaQuery.endTransaction(this);
         }
     }
 
+    /**
+     * @return the transactions of the threads using this instance
+     */
+    public TransactionContext context() {
+        return this.context;
+    }
+
     /**
      * Set the type of rollback exception to trigger the transaction rollback.
      *
@@ -294,6 +472,7 @@ public class Anima {
      */
     public Anima enableSQLStatistic(boolean enableSQLStatistic) {
         this.enableSQLStatistic = enableSQLStatistic;
+        this.sql2o.setEnableSQLStatistic(enableSQLStatistic);
         return this;
     }
 
@@ -316,6 +495,296 @@ public class Anima {
         return this.useSQLLimit;
     }
 
+    /**
+     * Set the default JDBC fetch size of streaming queries.
+     * <p>
+     * Some drivers need a special value to really stream rows,
+     * e.g. MySQL uses Integer.MIN_VALUE.
+     *
+     * @param fetchSize fetch size
+     * @return Anima
+     */
+    public Anima fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    public int fetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Set the maximum number of join keys in one IN query,
+     * joined models are loaded in chunks of this size.
+     *
+     * @param joinBatchSize join keys per query
+     * @return Anima
+     */
+    public Anima joinBatchSize(int joinBatchSize) {
+        ifThrow(joinBatchSize < 1,
+                new AnimaException("joinBatchSize must be greater than 0."));
+        this.joinBatchSize = joinBatchSize;
+        return this;
+    }
+
+    public int joinBatchSize() {
+        return this.joinBatchSize;
+    }
+
+    /**
+     * Set the number of rows sent in one JDBC batch when saving models in batch,
+     * 0 means all rows of the same column shape are sent at once.
+     *
+     * @param maxBatchRecords rows per batch
+     * @return Anima
+     */
+    public Anima maxBatchRecords(int maxBatchRecords) {
+        ifThrow(maxBatchRecords < 0,
+                new AnimaException("maxBatchRecords should be a nonnegative value."));
+        this.maxBatchRecords = maxBatchRecords;
+        return this;
+    }
+
+    public int maxBatchRecords() {
+        return this.maxBatchRecords;
+    }
+
+    /**
+     * Set whether batch save uses multiple rows insert statements,
+     * the rows of each statement are limited by the dialect.
+     *
+     * @param useMultiValuesInsert use multiple rows insert
+     * @return Anima
+     */
+    public Anima useMultiValuesInsert(boolean useMultiValuesInsert) {
+        this.useMultiValuesInsert = useMultiValuesInsert;
+        return this;
+    }
+
+    public boolean isUseMultiValuesInsert() {
+        return this.useMultiValuesInsert;
+    }
+
+    /**
+     * Set whether models keep a snapshot of their column values when they are loaded,
+     * {@link Model#update()} then writes only the columns changed since and skips
+     * the database when nothing changed.
+     *
+     * @param useDirtyTracking track changed columns
+     * @return Anima
+     */
+    public Anima useDirtyTracking(boolean useDirtyTracking) {
+        this.useDirtyTracking = useDirtyTracking;
+        return this;
+    }
+
+    public boolean isUseDirtyTracking() {
+        return this.useDirtyTracking;
+    }
+
+    /**
+     * Set the second-level cache of models read by primary key, e.g. {@link com.hellokaton.anima.cache.LRUEntityCache}.
+     * <p>
+     * Updates and deletes through Anima evict the cached models, statements run by
+     * {@link #execute(String, Object...)} do not, so tables changed that way should not be cached.
+     *
+     * @param entityCache entity cache, null disables the cache
+     * @return Anima
+     */
+    public Anima entityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+        return this;
+    }
+
+    public EntityCache entityCache() {
+        return this.entityCache;
+    }
+
+    /**
+     * Set the cache used by queries marked with {@link AnimaQuery#cached(java.time.Duration)}.
+     *
+     * @param queryCache query result cache
+     * @return Anima
+     */
+    public Anima queryCache(QueryCache queryCache) {
+        ifThrow(null == queryCache, new AnimaException("queryCache not be null."));
+        this.queryCache = queryCache;
+        return this;
+    }
+
+    public QueryCache queryCache() {
+        return this.queryCache;
+    }
+
+    /**
+     * Send the reads outside a transaction round-robin to the read replicas,
+     * see {@link #replicas(ReadBalance, Sql2o...)}.
+     *
+     * @param replicas read replicas
+     * @return Anima
+     */
+    public Anima replicas(Sql2o... replicas) {
+        return this.replicas(ReadBalance.ROUND_ROBIN, replicas);
+    }
+
+    /**
+     * Send all, one, count, page, stream and the other reads outside a transaction to the read replicas,
+     * writes and everything inside {@link #atomic(Runnable)} stay on the primary,
+     * except read-only transactions, see {@link TransactionOptions#readOnly(boolean)}.
+     *
+     * @param balance  how reads are spread over the replicas
+     * @param replicas read replicas, none to read from the primary again
+     * @return Anima
+     */
+    public Anima replicas(ReadBalance balance, Sql2o... replicas) {
+        this.replicas = replicas.length == 0 ? null : new ReadReplicas(balance, Arrays.asList(replicas));
+        return this;
+    }
+
+    public ReadReplicas replicas() {
+        return this.replicas;
+    }
+
+    /**
+     * Set how long the reads of a thread go to the primary after it wrote,
+     * so a replica that has not caught up yet does not hide the write.
+     *
+     * @param stickyReadWindow read from the primary this long after a write, zero to always read from the replicas
+     * @return Anima
+     */
+    public Anima stickyReadWindow(Duration stickyReadWindow) {
+        ifThrow(null == stickyReadWindow || stickyReadWindow.isNegative(),
+                new AnimaException("stickyReadWindow should be a nonnegative duration."));
+        this.stickyReadWindow = stickyReadWindow;
+        return this;
+    }
+
+    public Duration stickyReadWindow() {
+        return this.stickyReadWindow;
+    }
+
+    /**
+     * Set the shards of the {@link com.hellokaton.anima.annotation.Sharded} models, the index of a shard
+     * is the one its strategy picks, so keep the order when adding shards.
+     * <p>
+     * Queries and writes with a shard key condition, and saves, run on the shard of the key.
+     * all, one, count, page, update and delete without one run on every shard at the same time
+     * and the rows are merged in the order of the query. Sharded models can not be used in a transaction.
+     *
+     * @param shards shard databases
+     * @return Anima
+     */
+    public Anima shards(Sql2o... shards) {
+        this.shards = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(shards)));
+        return this;
+    }
+
+    public List<Sql2o> shards() {
+        return this.shards;
+    }
+
+    /**
+     * Set whether page() runs the count query on another connection while reading the page,
+     * pages inside a transaction always run both queries on the transaction connection one after the other.
+     *
+     * @param useConcurrentPage run the count and data queries concurrently
+     * @return Anima
+     */
+    public Anima useConcurrentPage(boolean useConcurrentPage) {
+        this.useConcurrentPage = useConcurrentPage;
+        return this;
+    }
+
+    public boolean isUseConcurrentPage() {
+        return this.useConcurrentPage;
+    }
+
+    /**
+     * Set the executor of the queries Anima runs off the calling thread, e.g. virtual threads on JDK 21.
+     * Every running query holds a connection, so an unbounded executor may take all connections of the pool.
+     *
+     * @param executor executor service
+     * @return Anima
+     */
+    public Anima executor(ExecutorService executor) {
+        ifThrow(null == executor, new AnimaException("executor not be null."));
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * The executor of the queries Anima runs off the calling thread, by default a bounded pool
+     * of daemon threads, twice the number of processors, that let idle threads go after a minute.
+     *
+     * @return executor service
+     */
+    public ExecutorService executor() {
+        ExecutorService executor = this.executor;
+        if (null == executor) {
+            synchronized (this) {
+                executor = this.executor;
+                if (null == executor) {
+                    executor = newExecutor();
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService newExecutor() {
+        AtomicInteger      threads  = new AtomicInteger();
+        int                size     = Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "anima-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Set the maximum number of cached select and count statements,
+     * repeated queries with the same shape reuse the statement built by the dialect.
+     * Starts a new empty cache of this instance, the caches of other instances are not touched.
+     *
+     * @param sqlCacheSize cached statements, 0 disables the cache
+     * @return Anima
+     */
+    public Anima sqlCacheSize(int sqlCacheSize) {
+        ifThrow(sqlCacheSize < 0,
+                new AnimaException("sqlCacheSize should be a nonnegative value."));
+        this.sqlCache = sqlCacheSize > 0 ? new SQLCache(sqlCacheSize) : null;
+        return this;
+    }
+
+    /**
+     * @return the statement cache of this instance, null when disabled
+     */
+    public SQLCache sqlCache() {
+        return this.sqlCache;
+    }
+
+    /**
+     * Set the number of prepared statements each connection keeps open for reuse,
+     * statements are reused while the connection stays open, e.g. inside a transaction.
+     *
+     * @param statementCacheSize cached statements per connection, 0 disables the cache
+     * @return Anima
+     */
+    public Anima statementCacheSize(int statementCacheSize) {
+        ifThrow(statementCacheSize < 0,
+                new AnimaException("statementCacheSize should be a nonnegative value."));
+        this.sql2o.setStatementCacheSize(statementCacheSize);
+        return this;
+    }
+
+    public int statementCacheSize() {
+        return this.sql2o.getStatementCacheSize();
+    }
+
     /**
      * Add custom Type converter
      *
@@ -333,6 +802,72 @@ public class Anima {
         return this;
     }
 
+    /**
+     * Open a query of all columns of the model on this instance.
+     *
+     * @param modelClass model type
+     * @param <T>
+     * @return AnimaQuery
+     */
+    public <T extends Model> AnimaQuery<T> from(Class<T> modelClass) {
+        return new AnimaQuery<>(this, modelClass);
+    }
+
+    /**
+     * Open a query statement on this instance, for some columns or a SQL statement.
+     *
+     * @param columns column names, null for all columns
+     * @return Select
+     */
+    public Select selectFrom(String columns) {
+        return new Select(this, columns);
+    }
+
+    /**
+     * Open an update statement on this instance.
+     *
+     * @param modelClass model type
+     * @param <T>
+     * @return AnimaQuery
+     */
+    public <T extends Model> AnimaQuery<T> updateFrom(Class<T> modelClass) {
+        return new Update(this).from(modelClass);
+    }
+
+    /**
+     * Open a delete statement on this instance.
+     *
+     * @param modelClass model type
+     * @param <T>
+     * @return AnimaQuery
+     */
+    public <T extends Model> AnimaQuery<T> deleteFrom(Class<T> modelClass) {
+        return new Delete(this).from(modelClass);
+    }
+
+    /**
+     * Save a model on this instance.
+     *
+     * @param model database model
+     * @param <T>
+     * @return ResultKey
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Model> ResultKey insert(T model) {
+        return new AnimaQuery<>(this, (Class<T>) model.getClass()).save(model);
+    }
+
+    /**
+     * Execute SQL statement on this instance.
+     *
+     * @param sql    sql statement
+     * @param params params
+     * @return number of rows affected after execution
+     */
+    public int executeUpdate(String sql, Object... params) {
+        return new AnimaQuery<>(this).execute(sql, params);
+    }
+
     /**
      * Open a query statement.
      *
@@ -396,14 +931,41 @@ public class Anima {
     }
 
     /**
-     * Batch save model
+     * Batch save model, models with the same non-null columns share one JDBC batch
+     * and get their generated primary keys back.
+     * <p>
+     * Sharded models are saved after the others committed, so a failure saves none of them.
+     * A transaction can not span the shards, a failing shard keeps the models already saved.
+     * Errors are logged, not thrown.
      *
      * @param models model list
      * @param <T>
      */
     public static <T extends Model> void saveBatch(List<T> models) {
-        atomic(() -> models.forEach(Anima::save))
-                .catchException(e -> log.error("Batch save model error, message: {}", e));
+        if (null == models || models.isEmpty()) {
+            return;
+        }
+        Map<Class<T>, List<T>> modelGroups   = new LinkedHashMap<>();
+        Map<Class<T>, List<T>> shardedGroups = new LinkedHashMap<>();
+        for (T model : models) {
+            @SuppressWarnings("unchecked")
+            Class<T> type = (Class<T>) model.getClass();
+            (type.isAnnotationPresent(Sharded.class) ? shardedGroups : modelGroups)
+                    .computeIfAbsent(type, key -> new ArrayList<>()).add(model);
+        }
+        Exception error = modelGroups.isEmpty() ? null
+                : atomic(() -> modelGroups.forEach((type, list) -> new AnimaQuery<>(type).saveBatch(list))).catchAndReturn(e -> e);
+        if (null == error) {
+            try {
+                // each shard saves its models in one batch
+                shardedGroups.forEach((type, list) -> new AnimaQuery<>(type).saveBatch(list));
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+        if (null != error) {
+            log.error("Batch save model error, message: {}", error);
+        }
     }
 
     /**
@@ -8,6 +8,10 @@ import java.io.Serializable;
 
 /**
  * Base Model
+ * <p>
+ * {@link #save()}, {@link #update()}, {@link #updateById(Serializable)} and {@link #delete()} run on the
+ * Anima instance the model was read from or saved with, such as an instance of {@link Anima#create(String, String, String)},
+ * and on the default instance for models created with new and not saved yet.
  *
  * @author biezhi
  * @date 2018/3/16
@@ -15,9 +19,29 @@ import java.io.Serializable;
 public class Model {
 
     /**
-     * The query object for the current model.
+     * The query object for the current model, created by {@link #query()} on first use,
+     * models that are only read never allocate it.
      */
-    private transient AnimaQuery<? extends Model> query = new AnimaQuery<>(this.getClass());
+    private transient AnimaQuery<? extends Model> query;
+
+    /**
+     * The column values when the model was loaded or last updated, see {@link Anima#useDirtyTracking(boolean)},
+     * kept by {@link com.hellokaton.anima.core.ModelAccessor}.
+     */
+    private transient Object[] snapshot;
+
+    /**
+     * The Anima instance the model was read from or saved with, null for the default instance,
+     * kept by {@link com.hellokaton.anima.core.ModelAccessor}.
+     */
+    private transient Anima anima;
+
+    private AnimaQuery<? extends Model> query() {
+        if (null == query) {
+            query = new AnimaQuery<>(anima, this.getClass());
+        }
+        return query;
+    }
 
     /**
      * Save model
@@ -25,16 +49,17 @@ public class Model {
      * @return ResultKey
      */
     public ResultKey save() {
-        return query.save(this);
+        return query().save(this);
     }
 
     /**
-     * Update model
+     * Update model, with dirty tracking enabled only the columns changed since the model
+     * was loaded are written, and nothing is executed when no column changed.
      *
      * @return number of rows affected after execution
      */
     public int update() {
-        return query.updateByModel(this);
+        return query().updateByModel(this);
     }
 
     /**
@@ -44,7 +69,7 @@ public class Model {
      * @return number of rows affected after execution
      */
     public int updateById(Serializable id) {
-        return new AnimaQuery<>(this.getClass()).updateById(this, id);
+        return new AnimaQuery<>(anima, this.getClass()).updateById(this, id);
     }
 
     /**
@@ -53,7 +78,7 @@ public class Model {
      * @return number of rows affected after execution
      */
     public int delete() {
-        return query.deleteByModel(this);
+        return query().deleteByModel(this);
     }
 
     /**
@@ -64,7 +89,7 @@ public class Model {
      * @return AnimaQuery
      */
     public AnimaQuery<? extends Model> set(String column, Object value) {
-        return query.set(column, value);
+        return query().set(column, value);
     }
 
     /**
@@ -77,7 +102,7 @@ public class Model {
      * @return AnimaQuery
      */
     public <T extends Model, R> AnimaQuery<? extends Model> set(TypeFunction<T, R> function, Object value) {
-        return query.set(function, value);
+        return query().set(function, value);
     }
 
     /**
@@ -88,7 +113,7 @@ public class Model {
      * @return AnimaQuery
      */
     public AnimaQuery<? extends Model> where(String statement, Object value) {
-        return query.where(statement, value);
+        return query().where(statement, value);
     }
 
     /**
@@ -101,7 +126,7 @@ public class Model {
      * @return AnimaQuery
      */
     public <T extends Model, R> AnimaQuery<? extends Model> where(TypeFunction<T, R> function, Object value) {
-        return query.where(function, value);
+        return query().where(function, value);
     }
 
 }
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.annotation;
+
+import com.hellokaton.anima.enums.ShardStrategy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The rows of the model are split over {@link com.hellokaton.anima.Anima#shards(org.sql2o.Sql2o...)} by a shard key.
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sharded {
+
+    /**
+     * @return the name of the shard key field
+     */
+    String key();
+
+    ShardStrategy strategy() default ShardStrategy.HASH;
+
+    /**
+     * Ascending upper bounds of the shards for {@link ShardStrategy#RANGE}, shard i holds the keys below
+     * ranges[i] and the last shard the keys from the last bound up, so there is one bound less than shards.
+     *
+     * @return range bounds
+     */
+    long[] ranges() default {};
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.cache;
+
+import com.hellokaton.anima.Model;
+
+/**
+ * Second-level cache of models by model class and primary key,
+ * used by byId and byIds when set with {@link com.hellokaton.anima.Anima#entityCache(EntityCache)}.
+ * <p>
+ * Anima only puts copies into the cache and hands out copies of the cached models,
+ * writes by primary key evict the key and other updates and deletes clear the model class.
+ */
+public interface EntityCache {
+
+    /**
+     * Get a cached model
+     *
+     * @param modelClass model class type
+     * @param id         primary key value
+     * @param <T>
+     * @return the cached model, null when it is not cached or expired
+     */
+    <T extends Model> T get(Class<T> modelClass, Object id);
+
+    /**
+     * Cache a model
+     *
+     * @param modelClass model class type
+     * @param id         primary key value
+     * @param model      model instance
+     * @param <T>
+     */
+    <T extends Model> void put(Class<T> modelClass, Object id, T model);
+
+    /**
+     * Evict a model
+     *
+     * @param modelClass model class type
+     * @param id         primary key value
+     */
+    void remove(Class<?> modelClass, Object id);
+
+    /**
+     * Evict all models of a model class
+     *
+     * @param modelClass model class type
+     */
+    void clear(Class<?> modelClass);
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.cache;
+
+import com.hellokaton.anima.Model;
+import com.hellokaton.anima.exception.AnimaException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * An {@link EntityCache} that keeps at most maxSize models, evicting the least recently used,
+ * and drops models older than the time to live.
+ */
+public class LRUEntityCache implements EntityCache {
+
+    private final int  maxSize;
+    private final long ttlNanos;
+
+    private final Map<List<Object>, Entry> entries;
+
+    /**
+     * @param maxSize the maximum number of cached models
+     * @param ttl     time to live of a cached model, null or zero never expires
+     */
+    public LRUEntityCache(int maxSize, Duration ttl) {
+        ifThrow(maxSize <= 0, new AnimaException("maxSize should be a positive value."));
+        ifThrow(null != ttl && ttl.isNegative(), new AnimaException("ttl should be a nonnegative value."));
+        this.maxSize = maxSize;
+        this.ttlNanos = null == ttl ? 0 : ttl.toNanos();
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > LRUEntityCache.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Model> T get(Class<T> modelClass, Object id) {
+        List<Object> key = Arrays.asList(modelClass, id);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (null == entry) {
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.createdAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return (T) entry.model;
+        }
+    }
+
+    @Override
+    public <T extends Model> void put(Class<T> modelClass, Object id, T model) {
+        Entry entry = new Entry(model, System.nanoTime());
+        synchronized (entries) {
+            entries.put(Arrays.asList(modelClass, id), entry);
+        }
+    }
+
+    @Override
+    public void remove(Class<?> modelClass, Object id) {
+        synchronized (entries) {
+            entries.remove(Arrays.asList(modelClass, id));
+        }
+    }
+
+    @Override
+    public void clear(Class<?> modelClass) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.get(0) == modelClass);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Model model;
+        private final long  createdAt;
+
+        private Entry(Model model, long createdAt) {
+            this.model = model;
+            this.createdAt = createdAt;
+        }
+    }
+
+}
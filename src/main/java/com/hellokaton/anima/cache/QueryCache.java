@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.cache;
+
+import com.hellokaton.anima.exception.AnimaException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * Cache of query results by statement and bound parameters, filled by
+ * {@link com.hellokaton.anima.core.AnimaQuery#cached(Duration)}.
+ * <p>
+ * Every result remembers the tables it was read from, a write through Anima
+ * invalidates the results of the written table. Keeps at most maxSize results,
+ * evicting the least recently used.
+ */
+public class QueryCache {
+
+    private final int maxSize;
+
+    private final Map<List<Object>, Entry> entries;
+
+    private final LongAdder hits          = new LongAdder();
+    private final LongAdder misses        = new LongAdder();
+    private final LongAdder evictions     = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize the maximum number of cached results
+     */
+    public QueryCache(int maxSize) {
+        ifThrow(maxSize <= 0, new AnimaException("maxSize should be a positive value."));
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                boolean remove = size() > QueryCache.this.maxSize;
+                if (remove) {
+                    evictions.increment();
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Get a cached result
+     *
+     * @param key statement, parameters and result shape
+     * @return the cached result, null when it is not cached or expired
+     */
+    public Object get(List<Object> key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (null != entry && System.nanoTime() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+            if (null == entry) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.result;
+        }
+    }
+
+    /**
+     * Cache a result
+     *
+     * @param key    statement, parameters and result shape
+     * @param tables the tables the result was read from
+     * @param result query result
+     * @param ttl    time to live
+     */
+    public void put(List<Object> key, Collection<String> tables, Object result, Duration ttl) {
+        Entry entry = new Entry(tables.toArray(new String[0]), result, System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Drop the results read from a table
+     *
+     * @param table table name
+     */
+    public void invalidate(String table) {
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().readFrom(table)) {
+                    iterator.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop all results, e.g. after a statement whose tables are unknown
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return results dropped because the cache was full or they expired
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return results dropped by writes
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    private static final class Entry {
+
+        private final String[] tables;
+        private final Object   result;
+        private final long     expiresAt;
+
+        private Entry(String[] tables, Object result, long expiresAt) {
+            this.tables = tables;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * A null table stands for a statement whose tables are unknown, it is read from any table.
+         */
+        private boolean readFrom(String table) {
+            for (String t : tables) {
+                if (null == t || t.equalsIgnoreCase(table)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.cache;
+
+import com.hellokaton.anima.exception.AnimaException;
+import org.sql2o.tools.AbstractCache;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * Cache of select and count statements by query shape, see {@link com.hellokaton.anima.Anima#sqlCacheSize(int)}.
+ * <p>
+ * Each Anima instance has its own cache. Keeps at most maxSize statements,
+ * evicting the oldest, lookups of cached statements take no lock.
+ */
+public class SQLCache {
+
+    private final AbstractCache<List<Object>, String, Supplier<String>> statements;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses  = new LongAdder();
+
+    /**
+     * @param maxSize the maximum number of cached statements
+     */
+    public SQLCache(int maxSize) {
+        ifThrow(maxSize <= 0, new AnimaException("maxSize should be a positive value."));
+        this.statements = new AbstractCache<List<Object>, String, Supplier<String>>(maxSize) {
+            @Override
+            protected String evaluate(List<Object> key, Supplier<String> builder) {
+                misses.increment();
+                return builder.get();
+            }
+        };
+    }
+
+    /**
+     * Get the statement of a query shape, built only on a cache miss.
+     * <p>
+     * The key must contain everything the statement depends on except the bound values.
+     *
+     * @param key     query shape
+     * @param builder build the statement
+     * @return sql statement
+     */
+    public String get(List<Object> key, Supplier<String> builder) {
+        lookups.increment();
+        return statements.get(key, builder);
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long hits() {
+        return lookups.sum() - misses.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+}
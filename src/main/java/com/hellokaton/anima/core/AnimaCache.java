@@ -12,6 +12,7 @@ import lombok.experimental.UtilityClass;
 
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,17 +33,18 @@ public class AnimaCache {
 
     public static final Map<Class, MethodAccess> METHOD_ACCESS_MAP = new ConcurrentHashMap<>();
 
-    private static final Map<Class<?>, String>              CACHE_TABLE_NAME      = new ConcurrentHashMap<>(8);
+    private static final Map<Class<?>, Map<String, String>> CACHE_TABLE_NAME      = new ConcurrentHashMap<>(8);
     private static final Map<Class<?>, String>              CACHE_PK_COLUMN_NAME  = new ConcurrentHashMap<>(8);
     private static final Map<Class<?>, String>              CACHE_PK_FIELD_NAME   = new ConcurrentHashMap<>(8);
     private static final Map<Class<?>, Map<String, String>> MODEL_COLUMN_MAPPINGS = new ConcurrentHashMap<>(8);
     private static final Map<SerializedLambda, String>      CACHE_LAMBDA_NAME     = new ConcurrentHashMap<>(8);
     private static final Map<SerializedLambda, String>      CACHE_FIELD_NAME      = new ConcurrentHashMap<>(8);
 
-    private static final Map<String, String>     GETTER_METHOD_NAME     = new ConcurrentHashMap<>();
-    private static final Map<String, String>     SETTER_METHOD_NAME     = new ConcurrentHashMap<>();
-    private static final Map<String, String>     FIELD_COLUMN_NAME      = new ConcurrentHashMap<>();
-    private static final Map<Class, List<Field>> MODEL_AVAILABLE_FIELDS = new ConcurrentHashMap<>();
+    private static final Map<String, String>       GETTER_METHOD_NAME     = new ConcurrentHashMap<>();
+    private static final Map<String, String>       SETTER_METHOD_NAME     = new ConcurrentHashMap<>();
+    private static final Map<String, String>       FIELD_COLUMN_NAME      = new ConcurrentHashMap<>();
+    private static final Map<Class, List<Field>>   MODEL_AVAILABLE_FIELDS = new ConcurrentHashMap<>();
+    private static final Map<Class, ModelAccessor> MODEL_ACCESSORS        = new ConcurrentHashMap<>();
 
     /**
      * Get the column mapping based on the model Class type
@@ -67,6 +69,21 @@ public class AnimaCache {
                         .collect(toList()));
     }
 
+    public static MethodAccess computeMethodAccess(Class<?> clazz) {
+        return METHOD_ACCESS_MAP.computeIfAbsent(clazz, type -> MethodAccess.get(type, Arrays.asList(type.getDeclaredMethods())));
+    }
+
+    /**
+     * Get the accessor of the model fields, in the order of {@link #computeModelFields(Class)}
+     *
+     * @param modelType model class type
+     * @return model accessor
+     */
+    public static ModelAccessor computeModelAccessor(Class<?> modelType) {
+        return MODEL_ACCESSORS.computeIfAbsent(modelType, model ->
+                new ModelAccessor(model, computeMethodAccess(model), computeModelFields(model)));
+    }
+
     /**
      * User -> users
      * User -> t_users
@@ -102,13 +119,25 @@ public class AnimaCache {
     }
 
     public static String getTableName(Class<?> modelClass) {
-        return CACHE_TABLE_NAME.computeIfAbsent(modelClass, type -> {
-            Table table = type.getAnnotation(Table.class);
-            if (null != table && AnimaUtils.isNotEmpty(table.name())) {
-                return table.name();
-            }
-            return getTableName(type.getSimpleName(), Anima.of().tablePrefix());
-        });
+        return getTableName(modelClass, Anima.of().tablePrefix());
+    }
+
+    /**
+     * Get the table name of a model, cached per table prefix because Anima instances may use different prefixes.
+     *
+     * @param modelClass model type
+     * @param prefix     table prefix, may be null
+     * @return table name
+     */
+    public static String getTableName(Class<?> modelClass, String prefix) {
+        return CACHE_TABLE_NAME.computeIfAbsent(modelClass, type -> new ConcurrentHashMap<>(2))
+                .computeIfAbsent(null == prefix ? "" : prefix, tablePrefix -> {
+                    Table table = modelClass.getAnnotation(Table.class);
+                    if (null != table && AnimaUtils.isNotEmpty(table.name())) {
+                        return table.name();
+                    }
+                    return getTableName(modelClass.getSimpleName(), tablePrefix);
+                });
     }
 
     public static String getPKColumn(Class<?> modelClass) {
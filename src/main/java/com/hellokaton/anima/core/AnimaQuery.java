@@ -17,26 +17,49 @@ package com.hellokaton.anima.core;
 
 import com.hellokaton.anima.Anima;
 import com.hellokaton.anima.Model;
+import com.hellokaton.anima.cache.EntityCache;
+import com.hellokaton.anima.cache.QueryCache;
+import com.hellokaton.anima.cache.SQLCache;
 import com.hellokaton.anima.core.functions.TypeFunction;
+import com.hellokaton.anima.dialect.Dialect;
 import com.hellokaton.anima.enums.DMLType;
 import com.hellokaton.anima.enums.ErrorCode;
+import com.hellokaton.anima.enums.Isolation;
 import com.hellokaton.anima.enums.OrderBy;
+import com.hellokaton.anima.enums.Propagation;
 import com.hellokaton.anima.page.Page;
 import com.hellokaton.anima.page.PageRow;
+import com.hellokaton.anima.page.SeekCursor;
+import com.hellokaton.anima.page.SeekPage;
 import com.hellokaton.anima.exception.AnimaException;
+import com.hellokaton.anima.reactive.Publisher;
 import com.hellokaton.anima.utils.AnimaUtils;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sql2o.Connection;
 import org.sql2o.Query;
+import org.sql2o.ResultSetIterable;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+import org.sql2o.converters.Converter;
+import org.sql2o.converters.ConverterException;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.hellokaton.anima.utils.Functions.*;
 import static java.util.stream.Collectors.toList;
@@ -51,19 +74,19 @@ import static java.util.stream.Collectors.toList;
 public class AnimaQuery<T extends Model> {
 
     /**
-     * SQL 2 o objects for the current query.
+     * The Anima instance this query runs on, the default instance when not given.
      */
-    private static Sql2o sql2o;
+    private Anima anima;
 
     /**
-     * Java Model, a table of corresponding databases.
+     * SQL 2 o objects for the current query, the database of the Anima instance when not bound.
      */
-    private Class<T> modelClass;
+    private Sql2o sql2o;
 
     /**
-     * The currently connected ThreadLocal, which stores the connection objects for SQL2O.
+     * Java Model, a table of corresponding databases.
      */
-    private static ThreadLocal<Connection> localConnection = new ThreadLocal<>();
+    private Class<T> modelClass;
 
     /**
      * Storage condition clause.
@@ -126,6 +149,42 @@ public class AnimaQuery<T extends Model> {
      */
     private List<JoinParam> joinParams = new ArrayList<>();
 
+    /**
+     * JDBC fetch size of the streaming query, use the global setting when null.
+     */
+    private Integer fetchSize;
+
+    /**
+     * How long the result of this query is cached, not cached when null.
+     */
+    private Duration cacheTtl;
+
+    /**
+     * How page() finds the total rows, see {@link #withoutCount()}, {@link #cachedCount(Duration)}
+     * and {@link #estimatedCount()}.
+     */
+    private CountMode countMode = CountMode.EXACT;
+
+    /**
+     * How long a cached total is reused.
+     */
+    private Duration countTtl;
+
+    /**
+     * Picks the shard of a sharded model, null when the model is not sharded.
+     */
+    private ShardRouter shardRouter;
+
+    /**
+     * The shard of the shard key condition, null when it runs on every shard.
+     */
+    private Sql2o shard;
+
+    /**
+     * An OR condition may select rows of other shards than the shard key condition.
+     */
+    private boolean orCondition;
+
     public AnimaQuery(DMLType dmlType) {
         this.dmlType = dmlType;
     }
@@ -134,10 +193,30 @@ public class AnimaQuery<T extends Model> {
         this.parse(modelClass);
     }
 
+    /**
+     * Create a query on the given Anima instance instead of the default one.
+     *
+     * @param anima anima instance
+     */
+    public AnimaQuery(Anima anima) {
+        this.anima = anima;
+    }
+
+    public AnimaQuery(Anima anima, DMLType dmlType) {
+        this.anima = anima;
+        this.dmlType = dmlType;
+    }
+
+    public AnimaQuery(Anima anima, Class<T> modelClass) {
+        this.anima = anima;
+        this.parse(modelClass);
+    }
+
     public AnimaQuery<T> parse(Class<T> modelClass) {
         this.modelClass = modelClass;
-        this.tableName = AnimaCache.getTableName(modelClass);
+        this.tableName = AnimaCache.getTableName(modelClass, this.anima().tablePrefix());
         this.primaryKeyColumn = AnimaCache.getPKColumn(modelClass);
+        this.shardRouter = ShardRouter.of(modelClass);
         return this;
     }
 
@@ -205,6 +284,7 @@ public class AnimaQuery<T extends Model> {
             conditionSQL.append(" = ?");
         }
         paramValues.add(value);
+        this.routeByCondition(statement, value);
         return this;
     }
 
@@ -234,6 +314,7 @@ public class AnimaQuery<T extends Model> {
         String columnName = AnimaUtils.getLambdaColumnName(function);
         conditionSQL.append(" AND ").append(columnName).append(" = ?");
         paramValues.add(value);
+        this.routeByCondition(columnName, value);
         return this;
     }
 
@@ -268,6 +349,8 @@ public class AnimaQuery<T extends Model> {
      * @return AnimaQuery
      */
     public AnimaQuery<T> eq(Object value) {
+        int and = conditionSQL.lastIndexOf(" AND ");
+        ifThen(and >= 0, () -> this.routeByCondition(conditionSQL.substring(and + 5), value));
         conditionSQL.append(" = ?");
         paramValues.add(value);
         return this;
@@ -325,6 +408,7 @@ public class AnimaQuery<T extends Model> {
      * @return AnimaQuery
      */
     public AnimaQuery<T> or(String statement, Object value) {
+        this.orCondition = true;
         conditionSQL.append(" OR (").append(statement);
         if (!statement.contains("?")) {
             conditionSQL.append(" = ?");
@@ -783,26 +867,74 @@ public class AnimaQuery<T extends Model> {
      */
     public T byId(Object id) {
         this.beforeCheck();
-        this.where(primaryKeyColumn, id);
+        EntityCache entityCache = this.entityCache();
 
-        String sql = this.buildSelectSQL(false);
+        T model = null != entityCache ? this.copyModel(entityCache.get(modelClass, entityKey(id))) : null;
+        if (null != model) {
+            this.clean(null);
+        } else {
+            this.where(primaryKeyColumn, id);
+
+            String sql = this.buildSelectSQL(false);
 
-        T model = this.queryOne(modelClass, sql, paramValues);
+            model = this.queryOne(modelClass, sql, paramValues);
 
-        ifNotNullThen(model, () -> this.setJoin(Collections.singletonList(model)));
+            if (null != entityCache && null != model) {
+                this.cacheModel(entityCache, entityKey(id), model);
+            }
+        }
 
+        if (null != model) {
+            this.setJoin(Collections.singletonList(model));
+        }
         return model;
     }
 
     /**
-     * query models by primary keys
+     * query models by primary keys, with an entity cache the cached models are
+     * returned in the order of the ids and only the others are queried.
      *
      * @param ids primary key values
      * @return models
      */
     public List<T> byIds(Object... ids) {
-        this.in(this.primaryKeyColumn, ids);
-        return this.all();
+        EntityCache entityCache = this.entityCache();
+        if (null == entityCache) {
+            this.in(this.primaryKeyColumn, ids);
+            return this.all();
+        }
+        this.beforeCheck();
+
+        Map<Object, T> models = new LinkedHashMap<>();
+        List<Object>   misses = new ArrayList<>();
+        for (Object id : ids) {
+            Object key = entityKey(id);
+            if (!models.containsKey(key)) {
+                T model = this.copyModel(entityCache.get(modelClass, key));
+                models.put(key, model);
+                ifNullThen(model, () -> misses.add(id));
+            }
+        }
+
+        if (misses.isEmpty()) {
+            this.clean(null);
+        } else {
+            this.in(this.primaryKeyColumn, misses.toArray());
+            String        sql      = this.buildSelectSQL(true);
+            ModelAccessor accessor = AnimaCache.computeModelAccessor(modelClass);
+            int           pkIndex  = this.primaryKeyIndex(accessor);
+            for (T model : this.queryList(modelClass, sql, paramValues)) {
+                Object key = pkIndex >= 0 ? entityKey(accessor.get(model, pkIndex)) : null;
+                if (models.containsKey(key)) {
+                    models.put(key, model);
+                    this.cacheModel(entityCache, key, model);
+                }
+            }
+        }
+
+        List<T> result = models.values().stream().filter(Objects::nonNull).collect(toList());
+        this.setJoin(result);
+        return result;
     }
 
     /**
@@ -815,12 +947,14 @@ public class AnimaQuery<T extends Model> {
 
         String sql = this.buildSelectSQL(true);
 
-        T model = this.queryOne(modelClass, sql, paramValues);
+        return this.cacheResult("one", sql, paramValues, () -> {
+            T model = this.queryOne(modelClass, sql, paramValues);
 
-        ifThen(null != model && null != joinParams,
-                () -> this.setJoin(Collections.singletonList(model)));
+            ifThen(null != model && null != joinParams,
+                    () -> this.setJoin(Collections.singletonList(model)));
 
-        return model;
+            return model;
+        }, Function.identity());
     }
 
     /**
@@ -830,10 +964,34 @@ public class AnimaQuery<T extends Model> {
      */
     public List<T> all() {
         this.beforeCheck();
-        String  sql    = this.buildSelectSQL(true);
-        List<T> models = this.queryList(modelClass, sql, paramValues);
-        this.setJoin(models);
-        return models;
+        String sql = this.buildSelectSQL(true);
+        return this.cacheResult("all", sql, paramValues, () -> {
+            List<T> models = this.queryList(modelClass, sql, paramValues);
+            this.setJoin(models);
+            return models;
+        }, ArrayList::new);
+    }
+
+    /**
+     * Query one model on {@link Anima#executor()}, see {@link #allAsync()}.
+     *
+     * @return one model future
+     */
+    public CompletableFuture<T> oneAsync() {
+        return this.async(this::one);
+    }
+
+    /**
+     * Query all models on {@link Anima#executor()} with a connection of its own,
+     * so independent queries can run at the same time.
+     * <p>
+     * Inside a transaction the query runs on the calling thread with the transaction connection
+     * and the returned future is already completed.
+     *
+     * @return model list future
+     */
+    public CompletableFuture<List<T>> allAsync() {
+        return this.async(this::all);
     }
 
     /**
@@ -844,48 +1002,169 @@ public class AnimaQuery<T extends Model> {
     public List<Map<String, Object>> maps() {
         this.beforeCheck();
         String sql = this.buildSelectSQL(true);
-        return this.queryListMap(sql, paramValues);
+        return this.cacheResult("maps", sql, paramValues, () -> this.queryListMap(sql, paramValues), ArrayList::new);
+    }
+
+    /**
+     * Cache the result of this query for the given time, later queries with the same
+     * statement and parameters are answered from {@link Anima#queryCache()}
+     * until a write through Anima touches one of the queried tables.
+     * <p>
+     * Applies to all, one, maps, count and page, queries inside a transaction are never cached.
+     * Cached models are shared by the callers that hit the cache, treat them as read only.
+     *
+     * @param ttl time to live of the cached result
+     * @return AnimaQuery
+     */
+    public AnimaQuery<T> cached(Duration ttl) {
+        ifThrow(null == ttl || ttl.isNegative() || ttl.isZero(),
+                new AnimaException("ttl should be a positive duration."));
+        this.cacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Set the JDBC fetch size of the streaming query.
+     *
+     * @param fetchSize fetch size, see {@link Anima#fetchSize(int)}
+     * @return AnimaQuery
+     */
+    public AnimaQuery<T> fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
     }
 
     /**
+     * Stream the models from the database cursor, rows are read on demand.
+     * <p>
+     * The connection is held until the stream is exhausted or closed,
+     * so close the stream when it may not be fully consumed.
+     * With joins the models are read with {@link #all()}, the joined models are loaded in batches of all rows.
+     *
      * @return models stream
      */
     public Stream<T> stream() {
-        List<T> all = all();
+        if (!joinParams.isEmpty()) {
+            return all().stream();
+        }
+        this.beforeCheck();
+        String     sql  = this.buildSelectSQL(true);
+        Connection conn = getReadConn();
+        try {
+            ResultSetIterable<T> iterable = conn.createQuery(sql)
+                    .withParams(paramValues)
+                    .setColumnMappings(AnimaCache.computeModelColumnMappings(modelClass))
+                    .throwOnMappingFailure(false)
+                    .setFetchSize(null != fetchSize ? fetchSize : this.anima().fetchSize())
+                    .executeAndFetchLazy(modelClass);
+
+            iterable.setAutoCloseConnection(this.localConnection() == null);
+
+            Stream<T> stream = StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(closeOnExhausted(iterable), Spliterator.ORDERED | Spliterator.NONNULL),
+                    false).onClose(iterable::close);
+
+            if (this.tracksLoaded()) {
+                stream = stream.peek(this::loaded);
+            }
+            return stream;
+        } catch (RuntimeException e) {
+            this.closeConn(conn);
+            throw e;
+        } finally {
+            this.clean(null);
+        }
+    }
+
+    /**
+     * Publish the models from the database cursor, rows are read only as fast as the subscriber requests them.
+     * <p>
+     * Each subscription runs the query on its first request with a connection of its own,
+     * or with the transaction connection when published inside a transaction,
+     * and releases it on complete, error or cancel.
+     * Joins are not supported, a join query per row would need a second connection while the cursor is open.
+     *
+     * @return models publisher
+     */
+    public Publisher<T> publish() {
+        ifThrow(!joinParams.isEmpty(), new AnimaException("publish does not support join, use all or page."));
+        this.beforeCheck();
+        String               sql         = this.buildSelectSQL(true);
+        List<Object>         params      = new ArrayList<>(paramValues);
+        int                  fetchSize   = null != this.fetchSize ? this.fetchSize : this.anima().fetchSize();
+        Connection           localConn   = this.localConnection();
+        Supplier<Connection> connections = null != shardRouter ? this.shardConnections() : readConnections();
+        boolean              loaded      = this.tracksLoaded();
+        this.clean(null);
+
+        return new ResultSetPublisher<>(() -> {
+            Connection conn = null != localConn ? localConn : connections.get();
+            try {
+                ResultSetIterable<T> iterable = conn.createQuery(sql)
+                        .withParams(params)
+                        .setColumnMappings(AnimaCache.computeModelColumnMappings(modelClass))
+                        .throwOnMappingFailure(false)
+                        .setFetchSize(fetchSize)
+                        .executeAndFetchLazy(modelClass);
+                iterable.setAutoCloseConnection(null == localConn);
+                return iterable;
+            } catch (RuntimeException e) {
+                ifThen(null == localConn, conn::close);
+                throw e;
+            }
+        }, model -> ifThen(loaded, () -> loaded(model)));
+    }
+
+    /**
+     * Release the cursor as soon as the last row has been read.
+     */
+    private static <S> Iterator<S> closeOnExhausted(ResultSetIterable<S> iterable) {
+        Iterator<S> iterator = iterable.iterator();
+        return new Iterator<S>() {
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = iterator.hasNext();
+                ifThen(!hasNext, iterable::close);
+                return hasNext;
+            }
 
-        return ifReturn(null == all || all.isEmpty(),
-                Stream.empty(),
-                Objects.requireNonNull(all).stream());
+            @Override
+            public S next() {
+                return iterator.next();
+            }
+        };
     }
 
     /**
-     * Parallel processing of the model list.
+     * Parallel processing of the model list, the models are read with {@link #all()}.
      *
      * @return parallel stream
      */
     public Stream<T> parallel() {
-        return stream().parallel();
+        return all().parallelStream();
     }
 
     /**
-     * Transform the results of the model.
+     * Transform the results of the model, the models are read with {@link #all()},
+     * use {@link #stream()} to read them from the cursor.
      *
      * @param function transform lambda
      * @param <R>
      * @return Stream
      */
     public <R> Stream<R> map(Function<T, R> function) {
-        return stream().map(function);
+        return all().stream().map(function);
     }
 
     /**
-     * Filter the list of models that are found.
+     * Filter the list of models that are found, the models are read with {@link #all()},
+     * use {@link #stream()} to read them from the cursor.
      *
      * @param predicate predicate lambda
      * @return Stream
      */
     public Stream<T> filter(Predicate<T> predicate) {
-        return stream().filter(predicate);
+        return all().stream().filter(predicate);
     }
 
     /**
@@ -895,7 +1174,7 @@ public class AnimaQuery<T extends Model> {
      * @return model list
      */
     public List<T> limit(int limit) {
-        return ifReturn(Anima.of().isUseSQLLimit(),
+        return ifReturn(this.anima().isUseSQLLimit(),
                 () -> {
                     isSQLLimit = true;
                     paramValues.add(limit);
@@ -953,17 +1232,58 @@ public class AnimaQuery<T extends Model> {
      */
     public Page<T> page(String sql, Object[] params, PageRow pageRow) {
         this.beforeCheck();
-        Connection conn = getConn();
+        // the page statement carries the order and the offset that the select statement does not
+        List<Object> key = Arrays.asList(this.buildPageSQL(sql, pageRow), pageRow.getPageNum(), pageRow.getPageSize(), countMode);
+        return this.cacheResult("page", key, Arrays.asList(params), () -> this.queryPage(sql, params, pageRow),
+                page -> page.map(Function.identity()));
+    }
+
+    private Page<T> queryPage(String sql, Object[] params, PageRow pageRow) {
+        if (this.isScatter()) {
+            return this.queryShardsPage(sql, params, pageRow);
+        }
+        Connection conn = getReadConn();
         try {
+            if (CountMode.NONE == countMode) {
+                return this.queryPageWithoutCount(conn, sql, params, pageRow);
+            }
+
             String countSql = useSQL ? "SELECT COUNT(*) FROM (" + sql + ") tmp" : buildCountSQL(sql);
 
-            long count = conn.createQuery(countSql)
-                    .withParams(params)
-                    .executeAndFetchFirst(Long.class);
+            boolean exactTotal = true;
+            Long    total      = null;
+            if (CountMode.ESTIMATED == countMode && !useSQL && conditionSQL.length() == 0) {
+                total = this.estimateCount(conn);
+                exactTotal = null == total;
+            }
+
+            QueryCache   queryCache = this.anima().queryCache();
+            List<Object> countKey   = Arrays.asList("pageCount", countSql, Arrays.asList(params));
+            boolean      cacheCount = CountMode.CACHED == countMode && null == this.localConnection();
+            if (cacheCount) {
+                total = (Long) queryCache.get(countKey);
+                exactTotal = null == total;
+            }
+
+            if (null == total && this.anima().isUseConcurrentPage() && null == this.localConnection()) {
+                return this.queryPageConcurrently(conn, sql, countSql, params, pageRow, cacheCount ? countKey : null);
+            }
+
+            if (null == total) {
+                total = conn.createQuery(countSql)
+                        .withParams(params)
+                        .executeAndFetchFirst(Long.class);
+                if (cacheCount) {
+                    queryCache.put(countKey, Collections.singleton(tableName), total, countTtl);
+                }
+            }
+            long count = total;
 
             Page<T> pageBean = new Page<>(count, pageRow.getPageNum(), pageRow.getPageSize());
+            pageBean.setExactTotal(exactTotal);
 
-            ifThen(count > 0, () -> {
+            // an estimated or cached total may be behind the table, so only an exact 0 skips the rows
+            ifThen(count > 0 || !exactTotal, () -> {
                 String pageSQL = this.buildPageSQL(sql, pageRow);
                 List<T> list = conn.createQuery(pageSQL)
                         .withParams(params)
@@ -971,6 +1291,7 @@ public class AnimaQuery<T extends Model> {
                         .throwOnMappingFailure(false)
                         .executeAndFetch(modelClass);
 
+                loaded(list);
                 this.setJoin(list);
                 pageBean.setRows(list);
             });
@@ -982,6 +1303,158 @@ public class AnimaQuery<T extends Model> {
         }
     }
 
+    /**
+     * Run the count query on another pooled connection while this thread reads the page,
+     * the page connection is released before waiting so the count never waits for it.
+     */
+    private Page<T> queryPageConcurrently(Connection conn, String sql, String countSql, Object[] params, PageRow pageRow, List<Object> countKey) {
+        Supplier<Connection> connections = null != shardRouter ? this.shardConnections() : readConnections();
+        Future<Long>         countFuture = this.fork(() -> {
+            try (Connection countConn = connections.get()) {
+                return countConn.createQuery(countSql)
+                        .withParams(params)
+                        .executeAndFetchFirst(Long.class);
+            }
+        });
+
+        List<T> list;
+        try {
+            list = conn.createQuery(this.buildPageSQL(sql, pageRow))
+                    .withParams(params)
+                    .setAutoDeriveColumnNames(true)
+                    .throwOnMappingFailure(false)
+                    .executeAndFetch(modelClass);
+        } catch (RuntimeException e) {
+            countFuture.cancel(true);
+            throw e;
+        }
+        this.closeConn(conn);
+
+        long count = await(countFuture);
+        if (null != countKey) {
+            this.anima().queryCache().put(countKey, Collections.singleton(tableName), count, countTtl);
+        }
+
+        Page<T> pageBean = new Page<>(count, pageRow.getPageNum(), pageRow.getPageSize());
+        if (count > 0) {
+            loaded(list);
+            this.setJoin(list);
+            pageBean.setRows(list);
+        }
+        return pageBean;
+    }
+
+    /**
+     * Hand a task to the Anima executor, it is run by whichever comes first,
+     * a worker or the thread that waits for it in {@link #await(Future)}.
+     */
+    private <V> Future<V> fork(Callable<V> task) {
+        FutureTask<V> future = new FutureTask<>(task);
+        this.anima().executor().execute(future);
+        return future;
+    }
+
+    /**
+     * Wait for a forked task, running it right here when no worker has taken it yet,
+     * so a busy executor whose workers wait for their own forked tasks can not deadlock.
+     */
+    private static <V> V await(Future<V> future) {
+        if (future instanceof FutureTask) {
+            ((FutureTask<V>) future).run();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AnimaException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AnimaException(e.getCause());
+        }
+    }
+
+    /**
+     * Read one more row than the page holds to find out whether there is a next page.
+     */
+    private Page<T> queryPageWithoutCount(Connection conn, String sql, Object[] params, PageRow pageRow) {
+        int     limit   = pageRow.getPageSize();
+        PageRow readRow = new PageRow(pageRow.getPageNum(), limit + 1);
+        readRow.setOffset(pageRow.getOffset());
+
+        String  pageSQL = this.buildPageSQL(sql, readRow);
+        List<T> list    = conn.createQuery(pageSQL)
+                .withParams(params)
+                .setAutoDeriveColumnNames(true)
+                .throwOnMappingFailure(false)
+                .executeAndFetch(modelClass);
+
+        boolean hasNextPage = list.size() > limit;
+        if (hasNextPage) {
+            list = new ArrayList<>(list.subList(0, limit));
+        }
+        loaded(list);
+        this.setJoin(list);
+        return new Page<>(list, pageRow.getPageNum(), limit, hasNextPage);
+    }
+
+    /**
+     * The row count of the table estimated by the database, null when the dialect has no estimate
+     * or the statistics have none yet, e.g. PostgreSQL reports -1 or 0 before the table is analyzed.
+     */
+    private Long estimateCount(Connection conn) {
+        String sql = this.anima().dialect().estimatedCount();
+        if (null == sql) {
+            return null;
+        }
+        try {
+            Long estimate = conn.createQuery(sql).withParams(tableName).executeScalar(Long.class);
+            return null != estimate && estimate > 0 ? estimate : null;
+        } catch (Sql2oException e) {
+            log.debug("Estimated count of {} is not available, counting rows.", tableName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Page without counting the rows, page() reads one row more than the limit to tell
+     * whether there is a next page, {@link Page#isExactTotal()} is false and the total is a lower bound.
+     *
+     * @return AnimaQuery
+     */
+    public AnimaQuery<T> withoutCount() {
+        this.countMode = CountMode.NONE;
+        return this;
+    }
+
+    /**
+     * Reuse the total rows of page() for the given time, writes through Anima to the table drop
+     * the cached total, see {@link Anima#queryCache()}.
+     *
+     * @param ttl time to live of the total
+     * @return AnimaQuery
+     */
+    public AnimaQuery<T> cachedCount(Duration ttl) {
+        ifThrow(null == ttl || ttl.isNegative() || ttl.isZero(),
+                new AnimaException("ttl should be a positive duration."));
+        this.countMode = CountMode.CACHED;
+        this.countTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Use the row count estimated by the database statistics as the total of page(),
+     * only for queries without conditions, others and dialects without an estimate still count the rows.
+     *
+     * @return AnimaQuery
+     */
+    public AnimaQuery<T> estimatedCount() {
+        this.countMode = CountMode.ESTIMATED;
+        return this;
+    }
+
     private String buildCountSQL(String sql) {
         return "SELECT COUNT(*) " + sql.substring(sql.indexOf("FROM"));
     }
@@ -997,6 +1470,109 @@ public class AnimaQuery<T extends Model> {
         return this.page(sql, pageRow);
     }
 
+    /**
+     * Paging query results on {@link Anima#executor()}, see {@link #allAsync()}.
+     *
+     * @param page  page number
+     * @param limit number each page
+     * @return Page future
+     */
+    public CompletableFuture<Page<T>> pageAsync(int page, int limit) {
+        return this.pageAsync(new PageRow(page, limit));
+    }
+
+    /**
+     * Paging query results on {@link Anima#executor()}, see {@link #allAsync()}.
+     *
+     * @param pageRow page params
+     * @return Page future
+     */
+    public CompletableFuture<Page<T>> pageAsync(PageRow pageRow) {
+        return this.async(() -> this.page(pageRow));
+    }
+
+    /**
+     * Keyset pagination by primary key ascending.
+     *
+     * @param cursor the cursor of the page, null for the first page
+     * @param limit  number each page
+     * @return SeekPage
+     * @see #seek(String, OrderBy, String, int)
+     */
+    public SeekPage<T> seek(String cursor, int limit) {
+        return this.seek(primaryKeyColumn, OrderBy.ASC, cursor, limit);
+    }
+
+    /**
+     * Keyset pagination with lambda
+     *
+     * @param function sort column with lambda
+     * @param orderBy  order of the sort column and primary key
+     * @param cursor   the cursor of the page, null for the first page
+     * @param limit    number each page
+     * @param <R>
+     * @return SeekPage
+     * @see #seek(String, OrderBy, String, int)
+     */
+    public <R> SeekPage<T> seek(TypeFunction<T, R> function, OrderBy orderBy, String cursor, int limit) {
+        String columnName = AnimaUtils.getLambdaColumnName(function);
+        return this.seek(columnName, orderBy, cursor, limit);
+    }
+
+    /**
+     * Keyset pagination, rows are ordered by the sort column then the primary key and each page
+     * continues after the key of the last row of the previous page instead of skipping an offset,
+     * so deep pages cost the same as the first one with an index on (column, primary key).
+     * <p>
+     * The sort column should not be null, the order is given by the seek and can not be combined with order by.
+     *
+     * @param column  sort column
+     * @param orderBy order of the sort column and primary key
+     * @param cursor  the cursor of the page, {@link SeekPage#getNextCursor()} of the previous page or null for the first page
+     * @param limit   number each page
+     * @return SeekPage
+     */
+    public SeekPage<T> seek(String column, OrderBy orderBy, String cursor, int limit) {
+        ifThrow(limit <= 0, new AnimaException("limit should be a positive value."));
+        ifThrow(this.orderBySQL.length() > 0, new AnimaException("seek orders by its columns, remove the order by clause."));
+        this.beforeCheck();
+
+        ModelAccessor accessor    = AnimaCache.computeModelAccessor(modelClass);
+        int           pkIndex     = this.primaryKeyIndex(accessor);
+        int           columnIndex = this.columnIndex(accessor, column);
+        boolean       byPK        = columnIndex == pkIndex;
+        ifThrow(pkIndex < 0 || columnIndex < 0, new AnimaException("seek columns should be fields of " + modelClass.getName()));
+
+        Dialect dialect = this.anima().dialect();
+        if (null != cursor) {
+            Object[] key = SeekCursor.decode(cursor);
+            ifThrow(key.length != (byPK ? 1 : 2), new AnimaException("illegal seek cursor: " + cursor));
+            if (byPK) {
+                conditionSQL.append(" AND ").append(primaryKeyColumn).append(OrderBy.DESC == orderBy ? " < ?" : " > ?");
+                paramValues.add(key[0]);
+            } else {
+                conditionSQL.append(" AND ").append(dialect.seekCondition(column, primaryKeyColumn, orderBy));
+                paramValues.addAll(Arrays.asList(dialect.seekParams(key[0], key[1])));
+            }
+        }
+        this.order(column, orderBy);
+        ifThen(!byPK, () -> this.order(primaryKeyColumn, orderBy));
+
+        // one more row tells whether there is a next page
+        String  sql  = this.buildPageSQL(this.buildSelectSQL(false), new PageRow(1, limit + 1));
+        List<T> rows = this.queryList(modelClass, sql, paramValues);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            T last = rows.get(limit - 1);
+            nextCursor = byPK ? SeekCursor.encode(accessor.get(last, pkIndex))
+                    : SeekCursor.encode(accessor.get(last, columnIndex), accessor.get(last, pkIndex));
+        }
+        this.setJoin(rows);
+        return new SeekPage<>(limit, rows, nextCursor);
+    }
+
     /**
      * Count the number of rows.
      *
@@ -1005,7 +1581,18 @@ public class AnimaQuery<T extends Model> {
     public long count() {
         this.beforeCheck();
         String sql = this.buildCountSQL();
-        return this.queryOne(Long.class, sql, paramValues);
+        return this.cacheResult("count", sql, paramValues, () -> this.isScatter()
+                ? this.countShards(sql, paramValues.toArray())
+                : this.queryOne(Long.class, sql, paramValues), Function.identity());
+    }
+
+    /**
+     * Count the number of rows on {@link Anima#executor()}, see {@link #allAsync()}.
+     *
+     * @return models count future
+     */
+    public CompletableFuture<Long> countAsync() {
+        return this.async(this::count);
     }
 
     /**
@@ -1069,7 +1656,7 @@ public class AnimaQuery<T extends Model> {
      * @return S
      */
     public <S> S queryOne(Class<S> type, String sql, Object[] params) {
-        Connection conn = getConn();
+        Connection conn = getReadConn();
         try {
             Query query = conn.createQuery(sql)
                     .withParams(params)
@@ -1078,7 +1665,7 @@ public class AnimaQuery<T extends Model> {
 
             return ifReturn(AnimaUtils.isBasicType(type),
                     () -> query.executeScalar(type),
-                    () -> query.executeAndFetchFirst(type));
+                    () -> loaded(query.executeAndFetchFirst(type)));
         } finally {
             this.closeConn(conn);
             this.clean(null);
@@ -1095,7 +1682,7 @@ public class AnimaQuery<T extends Model> {
      * @return S
      */
     public <S> S queryOne(Class<S> type, String sql, List<Object> params) {
-        if (Anima.of().isUseSQLLimit()) {
+        if (this.anima().isUseSQLLimit()) {
             sql += " LIMIT 1";
         }
         List<S> list = queryList(type, sql, params);
@@ -1112,13 +1699,17 @@ public class AnimaQuery<T extends Model> {
      * @return List<S>
      */
     public <S> List<S> queryList(Class<S> type, String sql, Object[] params) {
-        Connection conn = getConn();
+        if (this.isScatter()) {
+            return this.queryShardsList(type, sql, params);
+        }
+        Connection conn = getReadConn();
         try {
-            return conn.createQuery(sql)
+            List<S> models = conn.createQuery(sql)
                     .withParams(params)
                     .setColumnMappings(AnimaCache.computeModelColumnMappings(type))
                     .throwOnMappingFailure(false)
                     .executeAndFetch(type);
+            return loaded(models);
         } finally {
             this.closeConn(conn);
             this.clean(null);
@@ -1146,7 +1737,7 @@ public class AnimaQuery<T extends Model> {
      * @return List<Map>
      */
     public List<Map<String, Object>> queryListMap(String sql, Object[] params) {
-        Connection conn = getConn();
+        Connection conn = getReadConn();
         try {
             return conn.createQuery(sql)
                     .withParams(params)
@@ -1187,6 +1778,37 @@ public class AnimaQuery<T extends Model> {
         }
     }
 
+    /**
+     * Execute the update or delete on {@link Anima#executor()}, see {@link #allAsync()}.
+     *
+     * @return affect the number of rows future
+     */
+    public CompletableFuture<Integer> executeAsync() {
+        // the write happens on a worker thread, the reads of the caller after it stay on the primary
+        ifThen(null != this.anima().replicas(), () -> this.anima().context().lastWrite.set(System.nanoTime()));
+        return this.async(this::execute);
+    }
+
+    /**
+     * Run a terminal operation on the Anima executor, the worker thread never sees
+     * the transaction connection of the caller, so inside a transaction it runs right here.
+     * The worker reads within the sticky read window of the caller.
+     */
+    private <R> CompletableFuture<R> async(Supplier<R> supplier) {
+        if (null == this.localConnection()) {
+            TransactionContext context   = this.anima().context();
+            Long               writtenAt = context.lastWrite.get();
+            return CompletableFuture.supplyAsync(() -> context.withLastWrite(writtenAt, supplier), this.anima().executor());
+        }
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            future.complete(supplier.get());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      * Execute sql statement
      *
@@ -1195,12 +1817,17 @@ public class AnimaQuery<T extends Model> {
      * @return affect the number of rows
      */
     public int execute(String sql, Object... params) {
+        if (this.isScatter()) {
+            return this.executeShards(sql, params);
+        }
         Connection conn = getConn();
         try {
-            return conn.createQuery(sql)
+            int result = conn.createQuery(sql)
                     .withParams(params)
                     .executeUpdate()
                     .getResult();
+            this.invalidateQueries();
+            return result;
         } finally {
             this.closeConn(conn);
             this.clean(conn);
@@ -1226,6 +1853,7 @@ public class AnimaQuery<T extends Model> {
      * @return ResultKey
      */
     public <S extends Model> ResultKey save(S model) {
+        ifNotNullThen(shardRouter, () -> this.routeShard(shardRouter.keyOf(model)));
         List<Object> columnValues = AnimaUtils.toColumnValues(model, true);
         String       sql          = this.buildInsertSQL(model, columnValues);
         Connection   conn         = getConn();
@@ -1235,10 +1863,16 @@ public class AnimaQuery<T extends Model> {
                     .filter(Objects::nonNull)
                     .collect(toList());
 
-            return new ResultKey(conn.createQuery(sql)
+            Object key = conn.createQuery(sql)
                     .withParams(params)
                     .executeUpdate()
-                    .getKey());
+                    .getKey();
+
+            this.invalidateQueries();
+            Object primaryKey = null != key ? key : this.primaryKeyValue(model);
+            ifNotNullThen(primaryKey, () -> this.evictModel(primaryKey));
+            ifNotNullThen(this.anima, () -> ModelAccessor.bind(model, this.anima));
+            return new ResultKey(key);
         } finally {
             this.closeConn(conn);
             this.clean(conn);
@@ -1246,14 +1880,177 @@ public class AnimaQuery<T extends Model> {
     }
 
     /**
-     * Delete model
+     * Save models with JDBC batches or multiple rows insert statements.
+     * <p>
+     * Models are grouped by their non-null columns, each group reuses one insert statement,
+     * and the generated primary keys are written back to the models.
      *
-     * @return affect the number of rows
+     * @param models model list
+     * @param <S>
      */
-    public int delete() {
-        String sql = this.buildDeleteSQL(null);
-        return this.execute(sql, paramValues);
-    }
+    public <S extends Model> void saveBatch(List<S> models) {
+        if (null == shardRouter) {
+            this.insertBatch(models);
+            return;
+        }
+        Map<Sql2o, List<S>> shardModels = new LinkedHashMap<>();
+        for (S model : models) {
+            this.routeShard(shardRouter.keyOf(model));
+            shardModels.computeIfAbsent(shard, key -> new ArrayList<>()).add(model);
+        }
+        shardModels.forEach((shard, list) -> {
+            this.shard = shard;
+            this.insertBatch(list);
+        });
+    }
+
+    private <S extends Model> void insertBatch(List<S> models) {
+        Map<BitSet, List<Integer>> shapes       = new LinkedHashMap<>();
+        List<List<Object>>         columnValues = new ArrayList<>(models.size());
+        for (int i = 0; i < models.size(); i++) {
+            List<Object> values = AnimaUtils.toColumnValues(models.get(i), true);
+            BitSet       shape  = new BitSet(values.size());
+            for (int j = 0; j < values.size(); j++) {
+                if (null != values.get(j)) {
+                    shape.set(j);
+                }
+            }
+            columnValues.add(values);
+            shapes.computeIfAbsent(shape, key -> new ArrayList<>()).add(i);
+        }
+
+        Connection conn = getConn();
+        try {
+            for (List<Integer> indexes : shapes.values()) {
+                if (this.anima().isUseMultiValuesInsert()) {
+                    this.multiValuesInsert(conn, models, columnValues, indexes);
+                } else {
+                    this.batchInsert(conn, models, columnValues, indexes);
+                }
+            }
+            this.invalidateQueries();
+        } finally {
+            this.closeConn(conn);
+            this.clean(conn);
+        }
+    }
+
+    private <S extends Model> void batchInsert(Connection conn, List<S> models, List<List<Object>> columnValues, List<Integer> indexes) {
+        boolean fetchKeys       = conn.getSql2o().getQuirks().returnGeneratedKeysByDefault();
+        int     maxBatchRecords = this.anima().maxBatchRecords();
+        int     first           = indexes.get(0);
+        String  sql             = this.buildInsertSQL(models.get(first), columnValues.get(first));
+
+        Query   query   = conn.createQuery(sql, fetchKeys).setMaxBatchRecords(maxBatchRecords);
+        List<S> pending = new ArrayList<>(maxBatchRecords > 0 ? maxBatchRecords : indexes.size());
+        try {
+            for (Integer index : indexes) {
+                query.withParams(nonNullValues(columnValues.get(index))).addToBatch();
+                pending.add(models.get(index));
+
+                // the batch was executed by addToBatch, an unbounded batch never is
+                if (maxBatchRecords > 0 && query.getCurrentBatchRecords() == 0) {
+                    this.setGeneratedKeys(pending, fetchKeys ? conn.getKeys() : null);
+                    pending.clear();
+                }
+            }
+            if (!pending.isEmpty()) {
+                query.executeBatch();
+                this.setGeneratedKeys(pending, fetchKeys ? conn.getKeys() : null);
+            }
+        } finally {
+            query.close();
+        }
+    }
+
+    private <S extends Model> void multiValuesInsert(Connection conn, List<S> models, List<List<Object>> columnValues, List<Integer> indexes) {
+        Dialect      dialect     = this.anima().dialect();
+        boolean      fetchKeys   = conn.getSql2o().getQuirks().returnGeneratedKeysByDefault();
+        int          first       = indexes.get(0);
+        List<Object> firstValues = columnValues.get(first);
+
+        int columnCount = Math.max(1, nonNullValues(firstValues).size());
+        int rows        = Math.max(1, Math.min(dialect.maxInsertRows(), dialect.maxParameters() / columnCount));
+        if (this.anima().maxBatchRecords() > 0) {
+            rows = Math.min(rows, this.anima().maxBatchRecords());
+        }
+
+        String fullSQL = null;
+        for (int from = 0; from < indexes.size(); from += rows) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + rows, indexes.size()));
+            String sql = chunk.size() == rows && null != fullSQL ? fullSQL :
+                    this.buildInsertMultiSQL(models.get(first), firstValues, chunk.size());
+            if (chunk.size() == rows) {
+                fullSQL = sql;
+            }
+
+            List<Object> params  = new ArrayList<>(chunk.size() * columnCount);
+            List<S>      pending = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                params.addAll(nonNullValues(columnValues.get(index)));
+                pending.add(models.get(index));
+            }
+
+            Query query = conn.createQuery(sql, fetchKeys).withParams(params);
+            try {
+                query.executeUpdate();
+                this.setGeneratedKeys(pending, fetchKeys ? conn.getKeys() : null);
+            } finally {
+                query.close();
+            }
+        }
+    }
+
+    private static List<Object> nonNullValues(List<Object> columnValues) {
+        return columnValues.stream()
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    /**
+     * Write the generated keys of a executed batch back to the models without primary key.
+     */
+    private <S extends Model> void setGeneratedKeys(List<S> models, Object[] keys) {
+        if (null == keys || keys.length != models.size()) {
+            return;
+        }
+        String pkField = AnimaCache.getPKField(modelClass);
+        Field field = AnimaCache.computeModelFields(modelClass).stream()
+                .filter(f -> f.getName().equals(pkField))
+                .findFirst()
+                .orElse(null);
+
+        if (null == field) {
+            return;
+        }
+
+        Converter<?> converter = this.sql2o().getQuirks().converterOf(field.getType());
+        String       getter    = AnimaCache.getGetterName(pkField);
+        String       setter    = AnimaCache.getSetterName(pkField);
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                S model = models.get(i);
+                if (null != keys[i] && null == AnimaUtils.invokeMethod(model, getter, AnimaUtils.EMPTY_ARG)) {
+                    Object key = null != converter ? converter.convert(keys[i]) : keys[i];
+                    AnimaUtils.invokeMethod(model, setter, new Object[]{key});
+                }
+            }
+        } catch (ConverterException e) {
+            throw new AnimaException("convert generated key fail", e);
+        }
+    }
+
+    /**
+     * Delete model
+     *
+     * @return affect the number of rows
+     */
+    public int delete() {
+        String sql    = this.buildDeleteSQL(null);
+        int    result = this.execute(sql, paramValues);
+        this.evictModels();
+        return result;
+    }
 
     /**
      * Delete model by primary key
@@ -1264,7 +2061,10 @@ public class AnimaQuery<T extends Model> {
      */
     public <S extends Serializable> int deleteById(S id) {
         this.where(primaryKeyColumn, id);
-        return this.delete();
+        String sql    = this.buildDeleteSQL(null);
+        int    result = this.execute(sql, paramValues);
+        this.evictModel(id);
+        return result;
     }
 
     /**
@@ -1276,9 +2076,12 @@ public class AnimaQuery<T extends Model> {
      */
     public <S extends Model> int deleteByModel(S model) {
         this.beforeCheck();
+        this.routeByModel(model);
         String       sql             = this.buildDeleteSQL(model);
         List<Object> columnValueList = AnimaUtils.toColumnValues(model, false);
-        return this.execute(sql, columnValueList);
+        int          result          = this.execute(sql, columnValueList);
+        this.evictModel(this.primaryKeyValue(model));
+        return result;
     }
 
     /**
@@ -1287,6 +2090,12 @@ public class AnimaQuery<T extends Model> {
      * @return affect the number of rows
      */
     public int update() {
+        int result = this.updateColumns();
+        this.evictModels();
+        return result;
+    }
+
+    private int updateColumns() {
         this.beforeCheck();
         String       sql             = this.buildUpdateSQL(null, updateColumns);
         List<Object> columnValueList = new ArrayList<>();
@@ -1303,7 +2112,9 @@ public class AnimaQuery<T extends Model> {
      */
     public int updateById(Serializable id) {
         this.where(primaryKeyColumn, id);
-        return this.update();
+        int result = this.updateColumns();
+        this.evictModel(id);
+        return result;
     }
 
     /**
@@ -1315,11 +2126,14 @@ public class AnimaQuery<T extends Model> {
      * @return affect the number of rows, normally it's 1.
      */
     public <S extends Model> int updateById(S model, Serializable id) {
+        this.routeByModel(model);
         this.where(primaryKeyColumn, id);
         String       sql             = this.buildUpdateSQL(model, null);
         List<Object> columnValueList = AnimaUtils.toColumnValues(model, false);
         columnValueList.add(id);
-        return this.execute(sql, columnValueList);
+        int result = this.execute(sql, columnValueList);
+        this.evictModel(id);
+        return result;
     }
 
     /**
@@ -1331,6 +2145,16 @@ public class AnimaQuery<T extends Model> {
      */
     public <S extends Model> int updateByModel(S model) {
         this.beforeCheck();
+        this.routeByModel(model);
+
+        if (this.anima().isUseDirtyTracking() && null != ModelAccessor.snapshotValues(model)) {
+            ModelAccessor accessor = AnimaCache.computeModelAccessor(model.getClass());
+            Object[]      values   = accessor.values(model);
+            int           pkIndex  = this.primaryKeyIndex(accessor);
+            if (pkIndex >= 0 && null != values[pkIndex]) {
+                return this.updateChangedColumns(model, accessor, values, pkIndex);
+            }
+        }
 
         Object primaryKey = AnimaUtils.getAndRemovePrimaryKey(model);
 
@@ -1343,7 +2167,195 @@ public class AnimaQuery<T extends Model> {
             columnValueList.add(primaryKey);
         });
 
-        return this.execute(sql.toString(), columnValueList);
+        int result = this.execute(sql.toString(), columnValueList);
+        ifThen(null != primaryKey, () -> this.evictModel(primaryKey), this::evictModels);
+        return result;
+    }
+
+    /**
+     * Update the columns changed since the snapshot of the model, by primary key.
+     * Null values are not written, same as a full update.
+     *
+     * @return affect the number of rows, 0 without executing when nothing changed
+     */
+    private <S extends Model> int updateChangedColumns(S model, ModelAccessor accessor, Object[] values, int pkIndex) {
+        Object[]            snapshot       = ModelAccessor.snapshotValues(model);
+        Map<String, Object> changedColumns = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (i != pkIndex && null != values[i] && !Objects.deepEquals(values[i], snapshot[i])) {
+                changedColumns.put(accessor.columnName(i), values[i]);
+            }
+        }
+        if (changedColumns.isEmpty()) {
+            this.clean(null);
+            return 0;
+        }
+
+        String       sql             = this.buildUpdateSQL(null, changedColumns) + " WHERE " + this.primaryKeyColumn + " = ?";
+        List<Object> columnValueList = new ArrayList<>(changedColumns.values());
+        columnValueList.add(values[pkIndex]);
+
+        int result = this.execute(sql, columnValueList);
+        ModelAccessor.snapshot(model);
+        this.evictModel(values[pkIndex]);
+        return result;
+    }
+
+    private int primaryKeyIndex(ModelAccessor accessor) {
+        return this.columnIndex(accessor, this.primaryKeyColumn);
+    }
+
+    private int columnIndex(ModelAccessor accessor, String columnName) {
+        for (int i = 0; i < accessor.size(); i++) {
+            if (accessor.columnName(i).equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The entity cache used by byId and byIds, null when the query is not a plain
+     * primary key lookup of whole models.
+     */
+    private EntityCache entityCache() {
+        EntityCache entityCache = this.anima().entityCache();
+        if (null == entityCache || null == modelClass || null != shardRouter || useSQL || null != selectColumns
+                || !excludedColumns.isEmpty() || conditionSQL.length() > 0) {
+            return null;
+        }
+        return entityCache;
+    }
+
+    /**
+     * Copy a model put into or taken from the entity cache, so callers never share the cached instance.
+     */
+    private T copyModel(T model) {
+        return null == model ? null : loaded(AnimaCache.computeModelAccessor(modelClass).copy(model));
+    }
+
+    /**
+     * Cache a copy of the model, models read inside a transaction are not cached
+     * because the transaction may still be rolled back.
+     */
+    private void cacheModel(EntityCache entityCache, Object key, T model) {
+        T copy = this.copyModel(model);
+        if (null != copy && null == this.localConnection()) {
+            entityCache.put(modelClass, key, copy);
+        }
+    }
+
+    /**
+     * Evict the model from the entity cache, all models of the class when the primary key is null.
+     * A write in a transaction evicts again when the transaction ends, because other threads
+     * may cache the rows as they were before the commit in the meantime.
+     */
+    private void evictModel(Object primaryKey) {
+        EntityCache entityCache = this.anima().entityCache();
+        if (null != entityCache && null != modelClass) {
+            Object key = null != primaryKey ? entityKey(primaryKey) : null;
+            ifThen(null != key, () -> entityCache.remove(modelClass, key), () -> entityCache.clear(modelClass));
+            TransactionStatus status = this.anima().context().current.get();
+            if (null != status) {
+                status.root.evicted(modelClass, key);
+            }
+        }
+    }
+
+    private void evictModels() {
+        this.evictModel(null);
+    }
+
+    private Object primaryKeyValue(Model model) {
+        ModelAccessor accessor = AnimaCache.computeModelAccessor(model.getClass());
+        int           pkIndex  = this.primaryKeyIndex(accessor);
+        return pkIndex >= 0 ? accessor.get(model, pkIndex) : null;
+    }
+
+    /**
+     * Integral primary keys are cached as long values, so byId(1) and byId(1L) share the cached model.
+     */
+    private static Object entityKey(Object id) {
+        if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    /**
+     * Answer a query from the query cache when {@link #cached(Duration)} is set.
+     *
+     * @param kind   the query method, part of the cache key
+     * @param sql    statement, part of the cache key
+     * @param params bound parameters, part of the cache key
+     * @param loader run the query
+     * @param copier copy of the cached result handed to the caller
+     */
+    private <R> R cacheResult(String kind, Object sql, List<Object> params, Supplier<R> loader, Function<R, R> copier) {
+        Duration ttl = this.cacheTtl;
+        if (null == ttl || null != this.localConnection()) {
+            return loader.get();
+        }
+        QueryCache   queryCache = this.anima().queryCache();
+        List<Object> key        = Arrays.asList(kind, modelClass, sql, new ArrayList<>(params), new ArrayList<>(joinParams));
+        Set<String>  tables     = new HashSet<>();
+        tables.add(tableName);
+        joinParams.forEach(joinParam -> tables.add(AnimaCache.getTableName(joinParam.getJoinModel(), this.anima().tablePrefix())));
+
+        @SuppressWarnings("unchecked")
+        R result = (R) queryCache.get(key);
+        if (null == result) {
+            result = loader.get();
+            if (null != result) {
+                queryCache.put(key, tables, result, ttl);
+            }
+        } else {
+            // the loader cleans the query after running it, a hit never runs it
+            this.clean(null);
+        }
+        return null == result ? null : copier.apply(result);
+    }
+
+    private void invalidateQueries() {
+        TransactionContext context = this.anima().context();
+        ifThen(null != this.anima().replicas(), () -> context.lastWrite.set(System.nanoTime()));
+        TransactionStatus status = context.current.get();
+        if (null != status) {
+            status.root.writtenTables.add(tableName);
+        }
+        invalidateQueries(this.anima(), tableName);
+    }
+
+    private static void invalidateQueries(Anima anima, String tableName) {
+        QueryCache queryCache = anima.queryCache();
+        ifThen(null != tableName, () -> queryCache.invalidate(tableName), queryCache::invalidateAll);
+    }
+
+    /**
+     * Whether loaded models need {@link #loaded(Object)}, with dirty tracking enabled
+     * or when the query runs on an instance other than the default.
+     */
+    private boolean tracksLoaded() {
+        return null != this.anima || this.anima().isUseDirtyTracking();
+    }
+
+    /**
+     * Remember the loaded column values of a model when dirty tracking is enabled,
+     * and the Anima instance it was read from so that {@link Model#update()} writes back to it.
+     */
+    private <S> S loaded(S model) {
+        if (model instanceof Model) {
+            ifThen(this.anima().isUseDirtyTracking(), () -> ModelAccessor.snapshot((Model) model));
+            ifNotNullThen(this.anima, () -> ModelAccessor.bind((Model) model, this.anima));
+        }
+        return model;
+    }
+
+    private <S> List<S> loaded(List<S> models) {
+        if (this.tracksLoaded()) {
+            models.forEach(this::loaded);
+        }
+        return models;
     }
 
     private void setArguments(Object[] args) {
@@ -1364,19 +2376,34 @@ public class AnimaQuery<T extends Model> {
      * @return select sql
      */
     private String buildSelectSQL(boolean addOrderBy) {
-        SQLParams sqlParams = SQLParams.builder()
-                .modelClass(this.modelClass)
-                .selectColumns(this.selectColumns)
-                .tableName(this.tableName)
-                .pkName(this.primaryKeyColumn)
-                .conditionSQL(this.conditionSQL)
-                .excludedColumns(this.excludedColumns)
-                .isSQLLimit(isSQLLimit)
-                .build();
-
-        ifThen(addOrderBy, () -> sqlParams.setOrderBy(this.orderBySQL.toString()));
+        String orderBy = addOrderBy ? this.orderBySQL.toString() : null;
+        Dialect dialect = this.anima().dialect();
+
+        List<Object> key = Arrays.asList(DMLType.SELECT, dialect.getClass(), this.modelClass, this.tableName,
+                this.selectColumns, excludedColumnsKey(), this.conditionSQL.toString(), orderBy, this.isSQLLimit);
+
+        return this.computeSQL(key, () -> {
+            SQLParams sqlParams = SQLParams.builder()
+                    .modelClass(this.modelClass)
+                    .selectColumns(this.selectColumns)
+                    .tableName(this.tableName)
+                    .pkName(this.primaryKeyColumn)
+                    .conditionSQL(this.conditionSQL)
+                    .excludedColumns(this.excludedColumns)
+                    .isSQLLimit(isSQLLimit)
+                    .orderBy(orderBy)
+                    .build();
+
+            return dialect.select(sqlParams);
+        });
+    }
 
-        return Anima.of().dialect().select(sqlParams);
+    /**
+     * Get the statement of a query shape from {@link Anima#sqlCache()}, built on a miss or when the cache is disabled.
+     */
+    private String computeSQL(List<Object> key, Supplier<String> builder) {
+        SQLCache sqlCache = this.anima().sqlCache();
+        return null != sqlCache ? sqlCache.get(key, builder) : builder.get();
     }
 
     /**
@@ -1385,13 +2412,24 @@ public class AnimaQuery<T extends Model> {
      * @return count sql
      */
     private String buildCountSQL() {
-        SQLParams sqlParams = SQLParams.builder()
-                .modelClass(this.modelClass)
-                .tableName(this.tableName)
-                .pkName(this.primaryKeyColumn)
-                .conditionSQL(this.conditionSQL)
-                .build();
-        return Anima.of().dialect().count(sqlParams);
+        Dialect dialect = this.anima().dialect();
+
+        List<Object> key = Arrays.asList(DMLType.SELECT, dialect.getClass(), this.modelClass, this.tableName,
+                "COUNT", this.conditionSQL.toString());
+
+        return this.computeSQL(key, () -> {
+            SQLParams sqlParams = SQLParams.builder()
+                    .modelClass(this.modelClass)
+                    .tableName(this.tableName)
+                    .pkName(this.primaryKeyColumn)
+                    .conditionSQL(this.conditionSQL)
+                    .build();
+            return dialect.count(sqlParams);
+        });
+    }
+
+    private List<String> excludedColumnsKey() {
+        return this.excludedColumns.isEmpty() ? Collections.emptyList() : new ArrayList<>(this.excludedColumns);
     }
 
     /**
@@ -1412,7 +2450,7 @@ public class AnimaQuery<T extends Model> {
                 .orderBy(this.orderBySQL.toString())
                 .pageRow(pageRow)
                 .build();
-        return Anima.of().dialect().paginate(sqlParams);
+        return this.anima().dialect().paginate(sqlParams);
     }
 
     /**
@@ -1431,7 +2469,28 @@ public class AnimaQuery<T extends Model> {
                 .pkName(this.primaryKeyColumn)
                 .build();
 
-        return Anima.of().dialect().insert(sqlParams);
+        return this.anima().dialect().insert(sqlParams);
+    }
+
+    /**
+     * Build a multiple rows insert statement.
+     *
+     * @param model        the first model
+     * @param columnValues column values of the first model
+     * @param rows         number of rows
+     * @param <S>
+     * @return insert sql
+     */
+    private <S extends Model> String buildInsertMultiSQL(S model, List<Object> columnValues, int rows) {
+        SQLParams sqlParams = SQLParams.builder()
+                .model(model)
+                .columnValues(columnValues)
+                .modelClass(this.modelClass)
+                .tableName(this.tableName)
+                .pkName(this.primaryKeyColumn)
+                .build();
+
+        return this.anima().dialect().insertMulti(sqlParams, rows);
     }
 
     /**
@@ -1452,7 +2511,7 @@ public class AnimaQuery<T extends Model> {
                 .conditionSQL(this.conditionSQL)
                 .build();
 
-        return Anima.of().dialect().update(sqlParams);
+        return this.anima().dialect().update(sqlParams);
     }
 
     /**
@@ -1470,7 +2529,7 @@ public class AnimaQuery<T extends Model> {
                 .pkName(this.primaryKeyColumn)
                 .conditionSQL(this.conditionSQL)
                 .build();
-        return Anima.of().dialect().delete(sqlParams);
+        return this.anima().dialect().delete(sqlParams);
     }
 
     public AnimaQuery<T> useSQL() {
@@ -1491,63 +2550,430 @@ public class AnimaQuery<T extends Model> {
      * @return Connection
      */
     private Connection getConn() {
-        Connection connection = localConnection.get();
-        return ifNotNullReturn(connection, connection, this.getSql2o().open());
+        TransactionStatus status = this.anima().context().current.get();
+        if (null != status && status.isReadOnly()) {
+            throw new AnimaException("Can not write in a read-only transaction.");
+        }
+        if (null != shardRouter) {
+            return this.shardConnections().get();
+        }
+        return null != status ? status.connection : this.sql2o().open();
     }
 
     /**
-     * Begin a transaction.
+     * Route to the shard of the key when the condition is "shard key = ?".
+     */
+    private void routeByCondition(String statement, Object value) {
+        if (null == shardRouter) {
+            return;
+        }
+        String column = statement.trim();
+        if (column.contains("?")) {
+            column = column.endsWith("?") ? column.substring(0, column.length() - 1).trim() : "";
+            column = column.endsWith("=") ? column.substring(0, column.length() - 1) : "";
+        }
+        if (!column.isEmpty() && shardRouter.isKeyColumn(column)) {
+            this.routeShard(value);
+        }
+    }
+
+    private void routeByModel(Model model) {
+        if (null != shardRouter) {
+            Object key = shardRouter.keyOf(model);
+            ifNotNullThen(key, () -> this.routeShard(key));
+        }
+    }
+
+    private void routeShard(Object key) {
+        List<Sql2o> shards = this.anima().shards();
+        ifThrow(shards.isEmpty(), new AnimaException(modelClass.getName() + " is sharded, but there are no shards."));
+        this.shard = shards.get(shardRouter.shardOf(key, shards.size()));
+    }
+
+    /**
+     * Without a shard key condition the statement runs on every shard.
+     */
+    private boolean isScatter() {
+        return null != shardRouter && (null == shard || orCondition);
+    }
+
+    private Supplier<Connection> shardConnections() {
+        ifThrow(null != this.localConnection(),
+                new AnimaException("sharded model " + modelClass.getSimpleName() + " can not be used in a transaction."));
+        ifThrow(this.isScatter(), new AnimaException("this query of sharded model " + modelClass.getSimpleName()
+                + " needs a " + shardRouter.column() + " = ? condition."));
+        Sql2o shard = this.shard;
+        return shard::open;
+    }
+
+    /**
+     * Run the statement on every shard at the same time, each on a connection of its own.
+     */
+    private <R> List<R> scatter(Function<Connection, R> statement) {
+        ifThrow(null != this.localConnection(),
+                new AnimaException("sharded model " + modelClass.getSimpleName() + " can not be used in a transaction."));
+        List<Sql2o> shards = this.anima().shards();
+        ifThrow(shards.isEmpty(), new AnimaException(modelClass.getName() + " is sharded, but there are no shards."));
+
+        List<Future<R>> futures = new ArrayList<>(shards.size());
+        for (Sql2o shard : shards) {
+            futures.add(this.fork(() -> {
+                try (Connection conn = shard.open()) {
+                    return statement.apply(conn);
+                }
+            }));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(await(future));
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return results;
+    }
+
+    private <S> List<S> queryShardsList(Class<S> type, String sql, Object[] params) {
+        try {
+            List<List<S>> lists = this.scatter(conn -> conn.createQuery(sql)
+                    .withParams(params)
+                    .setColumnMappings(AnimaCache.computeModelColumnMappings(type))
+                    .throwOnMappingFailure(false)
+                    .executeAndFetch(type));
+
+            Comparator<S> comparator = type == modelClass ? shardRouter.comparator(orderBySQL.toString()) : null;
+            List<S>       models     = ShardRouter.merge(lists, comparator);
+            if (isSQLLimit && params.length > 0 && params[params.length - 1] instanceof Number) {
+                int limit = ((Number) params[params.length - 1]).intValue();
+                ifThen(models.size() > limit, () -> models.subList(limit, models.size()).clear());
+            }
+            return loaded(models);
+        } finally {
+            this.clean(null);
+        }
+    }
+
+    private long countShards(String sql, Object[] params) {
+        try {
+            return this.scatter(conn -> conn.createQuery(sql).withParams(params).executeAndFetchFirst(Long.class))
+                    .stream().mapToLong(count -> null != count ? count : 0).sum();
+        } finally {
+            this.clean(null);
+        }
+    }
+
+    /**
+     * Every shard reads its rows up to the end of the page, the merged rows are cut to the page.
+     * The total is always exact, the count mode of the query does not apply.
+     */
+    private Page<T> queryShardsPage(String sql, Object[] params, PageRow pageRow) {
+        try {
+            String  countSql = useSQL ? "SELECT COUNT(*) FROM (" + sql + ") tmp" : buildCountSQL(sql);
+            PageRow head     = new PageRow(1, (int) Math.min(Integer.MAX_VALUE, pageRow.getOffset() + pageRow.getPageSize()));
+            String  pageSQL  = this.buildPageSQL(sql, head);
+
+            List<Page<T>> pages = this.scatter(conn -> {
+                Long    count = conn.createQuery(countSql).withParams(params).executeAndFetchFirst(Long.class);
+                Page<T> page  = new Page<>(null != count ? count : 0, head.getPageNum(), head.getPageSize());
+                page.setRows(page.getTotalRows() > 0 ? conn.createQuery(pageSQL)
+                        .withParams(params)
+                        .setAutoDeriveColumnNames(true)
+                        .throwOnMappingFailure(false)
+                        .executeAndFetch(modelClass) : new ArrayList<>());
+                return page;
+            });
+
+            long    total    = pages.stream().mapToLong(Page::getTotalRows).sum();
+            Page<T> pageBean = new Page<>(total, pageRow.getPageNum(), pageRow.getPageSize());
+            if (total > 0) {
+                List<T> rows = ShardRouter.merge(pages.stream().map(Page::getRows).collect(toList()),
+                        shardRouter.comparator(orderBySQL.toString()));
+                int     from = (int) Math.min(rows.size(), pageRow.getOffset());
+                List<T> list = new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + pageRow.getPageSize())));
+                loaded(list);
+                this.setJoin(list);
+                pageBean.setRows(list);
+            }
+            return pageBean;
+        } finally {
+            this.clean(null);
+        }
+    }
+
+    private int executeShards(String sql, Object[] params) {
+        try {
+            int result = this.scatter(conn -> conn.createQuery(sql).withParams(params).executeUpdate().getResult())
+                    .stream().mapToInt(Integer::intValue).sum();
+            this.invalidateQueries();
+            return result;
+        } finally {
+            this.clean(null);
+        }
+    }
+
+    /**
+     * Get a connection for a read, a replica when there are read replicas
+     * unless this thread is in a transaction or wrote within the sticky read window.
+     *
+     * @return Connection
+     */
+    private Connection getReadConn() {
+        if (null != shardRouter) {
+            return this.shardConnections().get();
+        }
+        Connection connection = this.localConnection();
+        return ifNotNullReturn(connection, () -> this.readConnections().get());
+    }
+
+    /**
+     * Decide where reads go now, the connection may be opened later on another thread.
+     */
+    private Supplier<Connection> readConnections() {
+        ReadReplicas replicas = this.anima().replicas();
+        Sql2o        primary  = this.sql2o();
+        if (null == replicas || isStickyRead(this.anima())) {
+            return primary::open;
+        }
+        return () -> {
+            Connection connection = replicas.open();
+            return null != connection ? connection : primary.open();
+        };
+    }
+
+    private static boolean isStickyRead(Anima anima) {
+        ThreadLocal<Long> lastWrite = anima.context().lastWrite;
+        Long              writtenAt = lastWrite.get();
+        if (null == writtenAt) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < anima.stickyReadWindow().toNanos()) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+
+    /**
+     * Begin a transaction of the default Anima instance.
      */
     public static void beginTransaction() {
-        ifNullThen(localConnection.get(),
-                () -> {
-                    Connection connection = getSql2o().beginTransaction();
-                    localConnection.set(connection);
-                });
+        beginTransaction(Anima.of());
+    }
+
+    /**
+     * Begin a transaction of the Anima instance, or join the one this thread is in.
+     *
+     * @param anima anima instance
+     */
+    public static void beginTransaction(Anima anima) {
+        beginTransaction(anima, TransactionOptions.required());
+    }
+
+    /**
+     * Begin a transaction of the Anima instance, queries of the instance on this thread run in it
+     * until it ends with {@link #endTransaction(Anima)}.
+     *
+     * @param anima   anima instance
+     * @param options propagation, isolation level and read-only hint
+     * @return TransactionStatus
+     */
+    public static TransactionStatus beginTransaction(Anima anima, TransactionOptions options) {
+        TransactionContext context = anima.context();
+        TransactionStatus  current = context.current.get();
+        TransactionStatus  status;
+        if (null == current || Propagation.REQUIRES_NEW == options.propagation()) {
+            status = new TransactionStatus(options, openTransaction(anima, options), current);
+        } else if (Propagation.NESTED == options.propagation()) {
+            status = new TransactionStatus(options, current, setSavepoint(current.connection));
+        } else {
+            status = new TransactionStatus(options, current, null);
+        }
+        context.current.set(status);
+        return status;
     }
 
     /**
-     * End a transaction.
+     * Begin a new transaction with the isolation level and read-only hint,
+     * a read-only transaction runs on a read replica unless this thread wrote within the sticky read window.
+     */
+    private static Connection openTransaction(Anima anima, TransactionOptions options) {
+        Isolation    isolation  = options.isolation();
+        ReadReplicas replicas   = anima.replicas();
+        Connection   connection = null;
+        if (options.isReadOnly() && null != replicas && !isStickyRead(anima)) {
+            connection = replicas.beginTransaction(isolation);
+        }
+        if (null == connection) {
+            Sql2o sql2o = anima.getSql2o();
+            connection = Isolation.DEFAULT == isolation ? sql2o.beginTransaction() : sql2o.beginTransaction(isolation.getLevel());
+        }
+        if (options.isReadOnly()) {
+            try {
+                connection.getJdbcConnection().setReadOnly(true);
+            } catch (SQLException e) {
+                log.debug("Could not set the transaction connection read-only.", e);
+            }
+        }
+        return connection;
+    }
+
+    private static Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.getJdbcConnection().setSavepoint();
+        } catch (SQLException e) {
+            throw new AnimaException("Could not create a savepoint - " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * End a transaction of the default Anima instance.
      */
     public static void endTransaction() {
-        ifNotNullThen(localConnection.get(),
-                () -> {
-                    Connection connection = localConnection.get();
-                    ifThen(connection.isRollbackOnClose(), connection::close);
-                    localConnection.remove();
-                });
+        endTransaction(Anima.of());
+    }
+
+    /**
+     * End the innermost transaction of the Anima instance, the thread is back in the transaction it was in before.
+     *
+     * @param anima anima instance
+     */
+    public static void endTransaction(Anima anima) {
+        TransactionContext context = anima.context();
+        TransactionStatus  status  = context.current.get();
+        if (null == status) {
+            return;
+        }
+        ifThen(null == status.parent, context.current::remove, () -> context.current.set(status.parent));
+        if (!status.isNewTransaction()) {
+            return;
+        }
+        Connection connection = status.connection;
+        ifThen(connection.isRollbackOnClose(), connection::close);
+        EntityCache entityCache = anima.entityCache();
+        if (null != entityCache) {
+            status.evictedModels.forEach((modelClass, keys) -> ifThen(null != keys,
+                    () -> keys.forEach(key -> entityCache.remove(modelClass, key)), () -> entityCache.clear(modelClass)));
+        }
+        if (!status.writtenTables.isEmpty()) {
+            // results cached by other threads while the transaction was open may be stale now
+            status.writtenTables.forEach(tableName -> invalidateQueries(anima, tableName));
+            ifThen(null != anima.replicas(), () -> context.lastWrite.set(System.nanoTime()));
+        }
     }
 
     /**
-     * Commit connection
+     * Commit connection of the default Anima instance.
      */
     public static void commit() {
-        localConnection.get().commit();
+        commit(Anima.of());
+    }
+
+    /**
+     * Commit the innermost transaction of the Anima instance, a savepoint is released
+     * and a joined transaction is left to the transaction it joined.
+     * A transaction marked rollback-only is rolled back instead and fails the commit.
+     *
+     * @param anima anima instance
+     */
+    public static void commit(Anima anima) {
+        TransactionStatus status = anima.context().current.get();
+        ifNullThrow(status, new AnimaException("There is no transaction to commit."));
+        if (status.completed) {
+            return;
+        }
+        if (status.owner == status && status.rollbackOnly) {
+            rollback(anima);
+            throw new AnimaException("Transaction rolled back because it has been marked as rollback-only.");
+        }
+        status.completed = true;
+        if (status.isNested()) {
+            try {
+                status.connection.getJdbcConnection().releaseSavepoint(status.savepoint);
+            } catch (SQLException e) {
+                log.debug("Could not release the savepoint.", e);
+            }
+        } else if (status.isNewTransaction()) {
+            status.connection.commit();
+        }
     }
 
     /**
-     * Roll back connection
+     * Roll back connection of the default Anima instance.
      */
     public static void rollback() {
-        ifNotNullThen(localConnection.get(),
-                () -> {
-                    log.warn("Rollback connection.");
-                    localConnection.get().rollback();
-                });
+        rollback(Anima.of());
+    }
+
+    /**
+     * Roll back the innermost transaction of the Anima instance, a savepoint is rolled back to
+     * and a joined transaction marks the transaction it joined rollback-only.
+     *
+     * @param anima anima instance
+     */
+    public static void rollback(Anima anima) {
+        TransactionStatus status = anima.context().current.get();
+        if (null == status || status.completed) {
+            return;
+        }
+        status.completed = true;
+        if (status.isNested()) {
+            try {
+                status.connection.getJdbcConnection().rollback(status.savepoint);
+            } catch (SQLException e) {
+                log.warn("Could not roll back to the savepoint, message: {}", e);
+                status.parent.setRollbackOnly();
+            }
+        } else if (status.isNewTransaction()) {
+            log.warn("Rollback connection.");
+            status.connection.rollback();
+        } else {
+            status.setRollbackOnly();
+        }
     }
 
+    /**
+     * Run this query on another database than the one of its Anima instance.
+     *
+     * @param sql2o sql2o instance
+     * @return AnimaQuery
+     */
     public AnimaQuery<T> bindSQL2o(Sql2o sql2o) {
-        AnimaQuery.sql2o = sql2o;
+        this.sql2o = sql2o;
         return this;
     }
 
+    /**
+     * @return the database of the default Anima instance
+     */
     public static Sql2o getSql2o() {
-        return ifNotNullReturn(sql2o,
-                () -> {
-                    Sql2o sql2o = Anima.of().getSql2o();
-                    ifNullThrow(sql2o, new AnimaException("SQL2O instance not is null."));
-                    return sql2o;
-                });
+        Sql2o sql2o = Anima.of().getSql2o();
+        ifNullThrow(sql2o, new AnimaException("SQL2O instance not is null."));
+        return sql2o;
+    }
+
+    /**
+     * The Anima instance of this query, the default instance when none was given.
+     */
+    private Anima anima() {
+        return null != this.anima ? this.anima : Anima.of();
+    }
+
+    private Sql2o sql2o() {
+        if (null != this.sql2o) {
+            return this.sql2o;
+        }
+        Sql2o sql2o = this.anima().getSql2o();
+        ifNullThrow(sql2o, new AnimaException("SQL2O instance not is null."));
+        return sql2o;
+    }
+
+    /**
+     * @return the connection of the transaction of this thread on the Anima instance, null outside a transaction
+     */
+    private Connection localConnection() {
+        return this.anima().context().connection();
     }
 
     /**
@@ -1560,49 +2986,112 @@ public class AnimaQuery<T extends Model> {
                 joinParams.size() == 0) {
             return;
         }
-        models.stream().filter(Objects::nonNull).forEach(this::setJoin);
+        for (JoinParam joinParam : joinParams) {
+            this.setJoin(models, joinParam);
+        }
     }
 
     /**
-     * Set model join fields
+     * Load the join models of all rows with chunked IN queries and group them by the join key,
+     * the number of queries grows with the joins rather than the rows.
      *
-     * @param model model instance
+     * @param models    model list
+     * @param joinParam join param
      */
-    private void setJoin(T model) {
-        for (JoinParam joinParam : joinParams) {
-            try {
-                Object leftValue = AnimaUtils.invokeMethod(
-                        model,
-                        AnimaCache.getGetterName(joinParam.getOnLeft()),
-                        AnimaUtils.EMPTY_ARG);
+    private void setJoin(List<T> models, JoinParam joinParam) {
+        Field field;
+        try {
+            field = modelClass.getDeclaredField(joinParam.getFieldName());
+        } catch (NoSuchFieldException e) {
+            log.error("Set join error", e);
+            return;
+        }
 
-                String sql = "SELECT * FROM " + AnimaCache.getTableName(joinParam.getJoinModel()) +
-                        " WHERE " + joinParam.getOnRight() + " = ?";
+        boolean isList = field.getType().equals(List.class);
+        if (!isList && !field.getType().equals(joinParam.getJoinModel())) {
+            return;
+        }
+
+        String leftGetter  = AnimaCache.getGetterName(joinParam.getOnLeft());
+        String rightGetter = AnimaCache.getGetterName(this.getJoinRightField(joinParam));
+        String setter      = AnimaCache.getSetterName(joinParam.getFieldName());
+
+        Object[]            leftKeys   = new Object[models.size()];
+        Map<Object, Object> leftValues = new LinkedHashMap<>();
+        for (int i = 0; i < models.size(); i++) {
+            T model = models.get(i);
+            if (null == model) {
+                continue;
+            }
+            Object leftValue = AnimaUtils.invokeMethod(model, leftGetter, AnimaUtils.EMPTY_ARG);
+            if (null != leftValue) {
+                leftKeys[i] = joinKey(leftValue);
+                leftValues.putIfAbsent(leftKeys[i], leftValue);
+            }
+        }
 
-                Field field = model.getClass()
-                        .getDeclaredField(joinParam.getFieldName());
+        Map<Object, List<Model>> joinModels = new HashMap<>(leftValues.size());
+        List<Object>             keys       = new ArrayList<>(leftValues.values());
+        int                      batchSize  = this.anima().joinBatchSize();
 
+        for (int i = 0; i < keys.size(); i += batchSize) {
+            List<Object> chunk = keys.subList(i, Math.min(i + batchSize, keys.size()));
+            String       sql   = this.buildJoinSQL(joinParam, chunk.size());
 
-                if (field.getType().equals(List.class)) {
-                    if (AnimaUtils.isNotEmpty(joinParam.getOrderBy())) {
-                        sql += " ORDER BY " + joinParam.getOrderBy();
-                    }
-                    List<? extends Model> list = this.queryList(joinParam.getJoinModel(), sql, new Object[]{leftValue});
-                    AnimaUtils.invokeMethod(model, AnimaCache.getSetterName(joinParam.getFieldName()), new Object[]{list});
-                }
+            List<? extends Model> list = this.queryList(joinParam.getJoinModel(), sql, chunk.toArray());
+            for (Model joinModel : list) {
+                Object rightValue = AnimaUtils.invokeMethod(joinModel, rightGetter, AnimaUtils.EMPTY_ARG);
+                joinModels.computeIfAbsent(joinKey(rightValue), key -> new ArrayList<>()).add(joinModel);
+            }
+        }
 
-                if (field.getType().equals(joinParam.getJoinModel())) {
-                    Object joinObject = this.queryOne(joinParam.getJoinModel(), sql, new Object[]{leftValue});
-                    AnimaUtils.invokeMethod(model, AnimaCache.getSetterName(joinParam.getFieldName()), new Object[]{joinObject});
-                }
-            } catch (NoSuchFieldException e) {
-                log.error("Set join error", e);
+        for (int i = 0; i < models.size(); i++) {
+            T model = models.get(i);
+            if (null == model) {
+                continue;
             }
+            List<Model> list = null != leftKeys[i] ? joinModels.get(leftKeys[i]) : null;
+
+            Object value = isList
+                    ? ifReturn(null != list, () -> new ArrayList<>(list), ArrayList::new)
+                    : ifReturn(null != list, () -> list.get(0), () -> null);
+
+            AnimaUtils.invokeMethod(model, setter, new Object[]{value});
+        }
+    }
+
+    private String buildJoinSQL(JoinParam joinParam, int size) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ")
+                .append(AnimaCache.getTableName(joinParam.getJoinModel(), this.anima().tablePrefix()))
+                .append(" WHERE ").append(joinParam.getOnRight()).append(" IN (");
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
         }
+        sql.append(')');
+        if (AnimaUtils.isNotEmpty(joinParam.getOrderBy())) {
+            sql.append(" ORDER BY ").append(joinParam.getOrderBy());
+        }
+        return sql.toString();
+    }
+
+    private String getJoinRightField(JoinParam joinParam) {
+        String fieldName = AnimaCache.computeModelColumnMappings(joinParam.getJoinModel()).get(joinParam.getOnRight());
+        return ifNotNullReturn(fieldName, () -> AnimaUtils.toCamelName(joinParam.getOnRight()));
+    }
+
+    /**
+     * Integral keys are compared by value, so an Integer foreign key matches a Long primary key.
+     */
+    private static Object joinKey(Object value) {
+        if (value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        return value;
     }
 
     private void closeConn(Connection connection) {
-        ifThen(localConnection.get() == null && connection != null,
+        ifThen(this.localConnection() == null && connection != null,
                 () -> connection.close());
     }
 
@@ -1619,9 +3108,20 @@ public class AnimaQuery<T extends Model> {
         this.paramValues.clear();
         this.excludedColumns.clear();
         this.updateColumns.clear();
+        this.cacheTtl = null;
+        this.countMode = CountMode.EXACT;
+        this.shard = null;
+        this.orCondition = false;
 
-        ifThen(localConnection.get() == null && conn != null,
+        ifThen(this.localConnection() == null && conn != null,
                 () -> conn.close());
     }
 
+    /**
+     * How page() finds the total rows.
+     */
+    private enum CountMode {
+        EXACT, NONE, CACHED, ESTIMATED
+    }
+
 }
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import com.hellokaton.anima.Anima;
+import com.hellokaton.anima.Model;
+import com.hellokaton.anima.exception.AnimaException;
+import com.hellokaton.anima.utils.AnimaUtils;
+import com.hellokaton.blade.asm.MethodAccess;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Model Accessor
+ * <p>
+ * The getters of the model fields resolved once per model class,
+ * column i is read by the getter index i instead of looking the method up by name.
+ */
+public class ModelAccessor {
+
+    /**
+     * The dirty tracking snapshot of {@link Model}, a private field so it stays off the API of the models.
+     */
+    private static final Field SNAPSHOT = modelField("snapshot");
+
+    /**
+     * Snapshot value of a mutable column value that can not be copied, equal to no value.
+     */
+    private static final Object CHANGED = new Object();
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class));
+
+    /**
+     * The Anima instance a model was read from or saved with, see {@link Model}.
+     */
+    private static final Field ANIMA = modelField("anima");
+
+    private final Class<?>     modelClass;
+    private final MethodAccess methodAccess;
+    private final Field[]      fields;
+    private final String[]     columnNames;
+    private final int[]        getterIndexes;
+    private final int[]        setterIndexes;
+
+    ModelAccessor(Class<?> modelClass, MethodAccess methodAccess, List<Field> fields) {
+        this.modelClass = modelClass;
+        this.methodAccess = methodAccess;
+        this.fields = fields.toArray(new Field[0]);
+        this.columnNames = new String[this.fields.length];
+        this.getterIndexes = new int[this.fields.length];
+        this.setterIndexes = new int[this.fields.length];
+        for (int i = 0; i < this.fields.length; i++) {
+            this.columnNames[i] = AnimaCache.getColumnName(this.fields[i]);
+            this.getterIndexes[i] = methodIndex(methodAccess, AnimaCache.getGetterName(this.fields[i].getName()), 0);
+            this.setterIndexes[i] = methodIndex(methodAccess, AnimaCache.getSetterName(this.fields[i].getName()), 1);
+        }
+    }
+
+    /**
+     * @return the number of model fields
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    public Field field(int index) {
+        return fields[index];
+    }
+
+    public String columnName(int index) {
+        return columnNames[index];
+    }
+
+    /**
+     * Read the value of field index from the model
+     *
+     * @param model model instance
+     * @param index field index
+     * @return field value
+     */
+    public Object get(Object model, int index) {
+        int getterIndex = getterIndexes[index];
+        if (getterIndex < 0) {
+            throw new AnimaException("illegal argument or Access: no getter for field " + fields[index].getName());
+        }
+        return methodAccess.invoke(model, getterIndex, AnimaUtils.EMPTY_ARG);
+    }
+
+    /**
+     * Read the values of all fields from the model
+     *
+     * @param model model instance
+     * @return field values by field index
+     */
+    public Object[] values(Object model) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(model, i);
+        }
+        return values;
+    }
+
+    /**
+     * Copy the field values into a new model instance
+     *
+     * @param model model instance
+     * @param <T>
+     * @return the copy, null when the model has no public no-args constructor or a field has no setter
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T model) {
+        for (int i = 0; i < fields.length; i++) {
+            if (getterIndexes[i] < 0 || setterIndexes[i] < 0) {
+                return null;
+            }
+        }
+        T copy;
+        try {
+            copy = (T) modelClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            return null;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            methodAccess.invoke(copy, setterIndexes[i], get(model, i));
+        }
+        return copy;
+    }
+
+    /**
+     * Remember the current column values of the model, see {@link com.hellokaton.anima.Anima#useDirtyTracking(boolean)}.
+     */
+    static void snapshot(Model model) {
+        Object[] values = AnimaCache.computeModelAccessor(model.getClass()).values(model);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = snapshotValue(values[i]);
+        }
+        setModelField(SNAPSHOT, model, values);
+    }
+
+    /**
+     * A value that changes made in place to the model field do not reach: immutable values as they are,
+     * copies of arrays, dates and calendars, and {@link #CHANGED} for other mutable values so they are always written.
+     */
+    private static Object snapshotValue(Object value) {
+        if (null == value || value instanceof Enum || IMMUTABLE_TYPES.contains(value.getClass())
+                || value.getClass().getName().startsWith("java.time.")) {
+            return value;
+        }
+        if (value.getClass().isArray()) {
+            int    length = Array.getLength(value);
+            Object copy   = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        if (value instanceof Calendar) {
+            return ((Calendar) value).clone();
+        }
+        return CHANGED;
+    }
+
+    /**
+     * @return the column values remembered by {@link #snapshot(Model)}, null when there is none
+     */
+    static Object[] snapshotValues(Model model) {
+        try {
+            return (Object[]) SNAPSHOT.get(model);
+        } catch (IllegalAccessException e) {
+            throw new AnimaException(e);
+        }
+    }
+
+    /**
+     * Bind the model to the Anima instance it was read from or saved with.
+     */
+    static void bind(Model model, Anima anima) {
+        setModelField(ANIMA, model, anima);
+    }
+
+    private static Field modelField(String name) {
+        try {
+            Field field = Model.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new AnimaException(e);
+        }
+    }
+
+    private static void setModelField(Field field, Model model, Object value) {
+        try {
+            field.set(model, value);
+        } catch (IllegalAccessException e) {
+            throw new AnimaException(e);
+        }
+    }
+
+    private static int methodIndex(MethodAccess methodAccess, String methodName, int paramsCount) {
+        try {
+            return methodAccess.getIndex(methodName, paramsCount);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import com.hellokaton.anima.enums.Isolation;
+import com.hellokaton.anima.enums.ReadBalance;
+import com.hellokaton.anima.exception.AnimaException;
+import lombok.extern.slf4j.Slf4j;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+import org.sql2o.connectionsources.ConnectionSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * Read Replicas
+ * <p>
+ * The read-only databases that reads outside a transaction are sent to,
+ * set with {@link com.hellokaton.anima.Anima#replicas(ReadBalance, Sql2o...)}.
+ * A replica that can not be opened is skipped, the primary is used when none can.
+ */
+@Slf4j
+public class ReadReplicas {
+
+    private final List<Sql2o>        replicas;
+    private final ReadBalance        balance;
+    private final ConnectionSource[] sources;
+    private final AtomicInteger[]    inFlight;
+    private final AtomicInteger      next = new AtomicInteger();
+
+    public ReadReplicas(ReadBalance balance, List<Sql2o> replicas) {
+        ifThrow(null == replicas || replicas.isEmpty(), new AnimaException("replicas should not be empty."));
+        ifThrow(null == balance, new AnimaException("balance not be null."));
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.balance = balance;
+        this.sources = new ConnectionSource[replicas.size()];
+        this.inFlight = new AtomicInteger[replicas.size()];
+        for (int i = 0; i < sources.length; i++) {
+            this.inFlight[i] = new AtomicInteger();
+            this.sources[i] = countingSource(replicas.get(i).getConnectionSource(), inFlight[i]);
+        }
+    }
+
+    public List<Sql2o> replicas() {
+        return replicas;
+    }
+
+    public ReadBalance balance() {
+        return balance;
+    }
+
+    /**
+     * @param index replica index
+     * @return the number of connections Anima has open on the replica
+     */
+    public int inFlight(int index) {
+        return inFlight[index].get();
+    }
+
+    /**
+     * Open a connection to the replica picked by the balance, trying the others when it fails.
+     *
+     * @return connection, null when no replica could be opened
+     */
+    Connection open() {
+        return this.open(Sql2o::open);
+    }
+
+    /**
+     * Begin a transaction on the replica picked by the balance, trying the others when it fails.
+     *
+     * @param isolation isolation level
+     * @return connection in the transaction, null when no replica could be opened
+     */
+    Connection beginTransaction(Isolation isolation) {
+        return this.open((sql2o, source) -> isolation == Isolation.DEFAULT ?
+                sql2o.beginTransaction(source) : sql2o.beginTransaction(source, isolation.getLevel()));
+    }
+
+    private Connection open(BiFunction<Sql2o, ConnectionSource, Connection> opener) {
+        int start = this.pick();
+        for (int i = 0; i < sources.length; i++) {
+            int index = (start + i) % sources.length;
+            try {
+                return opener.apply(replicas.get(index), sources[index]);
+            } catch (Sql2oException e) {
+                log.warn("Could not open read replica {}, trying the next one.", index, e);
+            }
+        }
+        return null;
+    }
+
+    private int pick() {
+        int start = Math.floorMod(next.getAndIncrement(), sources.length);
+        if (balance == ReadBalance.ROUND_ROBIN) {
+            return start;
+        }
+        // ties go to the replica after the last pick, so idle replicas take turns
+        int least = start;
+        for (int i = 1; i < sources.length; i++) {
+            int index = (start + i) % sources.length;
+            if (inFlight[index].get() < inFlight[least].get()) {
+                least = index;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * Count the connections from the source until they are closed.
+     */
+    private static ConnectionSource countingSource(ConnectionSource source, AtomicInteger inFlight) {
+        return () -> {
+            java.sql.Connection connection = source.getConnection();
+            inFlight.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (java.sql.Connection) Proxy.newProxyInstance(java.sql.Connection.class.getClassLoader(),
+                    new Class<?>[]{java.sql.Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        };
+    }
+
+}
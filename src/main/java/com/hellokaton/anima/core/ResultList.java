@@ -15,6 +15,7 @@
  */
 package com.hellokaton.anima.core;
 
+import com.hellokaton.anima.Anima;
 import com.hellokaton.anima.Model;
 import com.hellokaton.anima.page.Page;
 import com.hellokaton.anima.page.PageRow;
@@ -33,31 +34,40 @@ import java.util.Map;
 public class ResultList<T> {
 
 
+    private final Anima    anima;
     private final Class<T> type;
     private final String   sql;
     private final Object[] params;
 
     public ResultList(Class<T> type, String sql, Object[] params) {
+        this(null, type, sql, params);
+    }
+
+    /**
+     * @param anima the Anima instance the statement runs on, null for the default instance
+     */
+    public ResultList(Anima anima, Class<T> type, String sql, Object[] params) {
+        this.anima = anima;
         this.type = type;
         this.sql = sql;
         this.params = params;
     }
 
     public T one() {
-        return new AnimaQuery<>().useSQL().queryOne(type, sql, params);
+        return new AnimaQuery<>(anima).useSQL().queryOne(type, sql, params);
     }
 
     public List<T> all() {
-        return new AnimaQuery<>().useSQL().queryList(type, sql, params);
+        return new AnimaQuery<>(anima).useSQL().queryList(type, sql, params);
     }
 
     public List<Map<String, Object>> maps(){
-        return new AnimaQuery<>().useSQL().queryListMap(sql, params);
+        return new AnimaQuery<>(anima).useSQL().queryListMap(sql, params);
     }
 
     public <S extends Model> Page<S> page(PageRow pageRow) {
         Class<S> modelType = (Class<S>) type;
-        return new AnimaQuery<>(modelType).useSQL().page(sql, params, pageRow);
+        return new AnimaQuery<>(anima, modelType).useSQL().page(sql, params, pageRow);
     }
 
     public <S extends Model> Page<S> page(int page, int limit) {
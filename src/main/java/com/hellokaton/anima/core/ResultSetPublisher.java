@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import com.hellokaton.anima.reactive.Publisher;
+import com.hellokaton.anima.reactive.Subscriber;
+import com.hellokaton.anima.reactive.Subscription;
+import org.sql2o.ResultSetIterable;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the rows of a lazy query.
+ * <p>
+ * The query runs on the first request, rows are read from the cursor on the thread
+ * that requests them and only as many as have been requested. The cursor and its connection
+ * are released on complete, error or cancel.
+ *
+ * @param <T> model type
+ */
+final class ResultSetPublisher<T> implements Publisher<T> {
+
+    private final Supplier<ResultSetIterable<T>> opener;
+    private final Consumer<T>                    onRow;
+
+    ResultSetPublisher(Supplier<ResultSetIterable<T>> opener, Consumer<T> onRow) {
+        this.opener = opener;
+        this.onRow = onRow;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (null == subscriber) {
+            throw new NullPointerException("subscriber not be null.");
+        }
+        subscriber.onSubscribe(new RowSubscription<>(subscriber, opener, onRow));
+    }
+
+    private static final class RowSubscription<T> implements Subscription {
+
+        private final Subscriber<? super T>          subscriber;
+        private final Supplier<ResultSetIterable<T>> opener;
+        private final Consumer<T>                    onRow;
+
+        private final AtomicLong    requested = new AtomicLong();
+        private final AtomicInteger wip       = new AtomicInteger();
+
+        private volatile boolean   cancelled;
+        private volatile Throwable badRequest;
+
+        // only touched by the thread that won the wip counter
+        private ResultSetIterable<T> iterable;
+        private Iterator<T>          iterator;
+        private boolean              done;
+
+        RowSubscription(Subscriber<? super T> subscriber, Supplier<ResultSetIterable<T>> opener, Consumer<T> onRow) {
+            this.subscriber = subscriber;
+            this.opener = opener;
+            this.onRow = onRow;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("request should be a positive value, was " + n);
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Serializes the signals, a request from onNext or another thread is picked up by
+         * the thread already emitting instead of emitting recursively or concurrently.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            try {
+                if (cancelled) {
+                    release();
+                    return;
+                }
+                if (null != badRequest) {
+                    release();
+                    subscriber.onError(badRequest);
+                    return;
+                }
+                long r = requested.get();
+                if (r == 0) {
+                    return;
+                }
+                if (null == iterator) {
+                    iterable = opener.get();
+                    iterator = iterable.iterator();
+                }
+                long emitted = 0;
+                while (true) {
+                    if (cancelled) {
+                        release();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        release();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (emitted == r) {
+                        if (r != Long.MAX_VALUE) {
+                            r = requested.addAndGet(-emitted);
+                            emitted = 0;
+                        }
+                        if (r == 0) {
+                            return;
+                        }
+                    }
+                    T row = iterator.next();
+                    onRow.accept(row);
+                    subscriber.onNext(row);
+                    emitted++;
+                }
+            } catch (Throwable e) {
+                boolean signal = !done && !cancelled;
+                release();
+                if (signal) {
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        private void release() {
+            done = true;
+            ResultSetIterable<T> iterable = this.iterable;
+            this.iterable = null;
+            this.iterator = null;
+            if (null != iterable) {
+                iterable.close();
+            }
+        }
+    }
+
+}
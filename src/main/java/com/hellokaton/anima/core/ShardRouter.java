@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import com.hellokaton.anima.annotation.Sharded;
+import com.hellokaton.anima.enums.ShardStrategy;
+import com.hellokaton.anima.exception.AnimaException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hellokaton.anima.utils.Functions.ifNullThrow;
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * Shard Router
+ * <p>
+ * Picks the shard of a {@link Sharded} model by its shard key,
+ * and merges the rows read from several shards in the order of the query.
+ */
+final class ShardRouter {
+
+    private static final Map<Class<?>, Optional<ShardRouter>> ROUTERS = new ConcurrentHashMap<>();
+
+    private final Class<?>      modelClass;
+    private final ModelAccessor accessor;
+    private final int           keyIndex;
+    private final ShardStrategy strategy;
+    private final long[]        ranges;
+
+    private ShardRouter(Class<?> modelClass, Sharded sharded) {
+        this.modelClass = modelClass;
+        this.accessor = AnimaCache.computeModelAccessor(modelClass);
+        this.strategy = sharded.strategy();
+        this.ranges = sharded.ranges().clone();
+
+        int keyIndex = -1;
+        for (int i = 0; i < accessor.size(); i++) {
+            if (accessor.field(i).getName().equals(sharded.key())) {
+                keyIndex = i;
+            }
+        }
+        ifThrow(keyIndex < 0, new AnimaException("shard key " + sharded.key() + " is not a field of " + modelClass.getName()));
+        this.keyIndex = keyIndex;
+
+        for (int i = 1; i < ranges.length; i++) {
+            ifThrow(ranges[i] <= ranges[i - 1], new AnimaException("shard ranges of " + modelClass.getName() + " should be ascending."));
+        }
+    }
+
+    /**
+     * @param modelClass model class type
+     * @return the router of the model, null when the model is not sharded
+     */
+    static ShardRouter of(Class<?> modelClass) {
+        return ROUTERS.computeIfAbsent(modelClass, type -> {
+            Sharded sharded = type.getAnnotation(Sharded.class);
+            return Optional.ofNullable(null == sharded ? null : new ShardRouter(type, sharded));
+        }).orElse(null);
+    }
+
+    String column() {
+        return accessor.columnName(keyIndex);
+    }
+
+    /**
+     * Check a condition column is the shard key column, quotes and table names are ignored.
+     */
+    boolean isKeyColumn(String column) {
+        String name = column.trim().replaceAll("[`\"\\[\\]]", "");
+        name = name.substring(name.lastIndexOf('.') + 1);
+        return name.equalsIgnoreCase(this.column());
+    }
+
+    Object keyOf(Object model) {
+        return accessor.get(model, keyIndex);
+    }
+
+    /**
+     * @param key    shard key value
+     * @param shards the number of shards
+     * @return shard index
+     */
+    int shardOf(Object key, int shards) {
+        ifNullThrow(key, new AnimaException("shard key " + this.column() + " of " + modelClass.getSimpleName() + " not be null."));
+        if (ShardStrategy.RANGE == strategy) {
+            ifThrow(ranges.length != shards - 1, new AnimaException(modelClass.getName()
+                    + " has " + ranges.length + " shard ranges, expected one less than the " + shards + " shards."));
+            long value = longValue(key);
+            int  shard = 0;
+            while (shard < ranges.length && value >= ranges[shard]) {
+                shard++;
+            }
+            return shard;
+        }
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte
+                || key instanceof BigInteger) {
+            return (int) Math.floorMod(((Number) key).longValue(), (long) shards);
+        }
+        return Math.floorMod(key.toString().hashCode(), shards);
+    }
+
+    private long longValue(Object key) {
+        if (key instanceof Number) {
+            return ((Number) key).longValue();
+        }
+        try {
+            return Long.parseLong(key.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new AnimaException("range shard key " + this.column() + " should be a number, was " + key);
+        }
+    }
+
+    /**
+     * The order of the merged rows, so they come out as one database would have sorted them.
+     *
+     * @param orderBy order by clause like "age desc, id"
+     * @return comparator, null when the query is not ordered
+     */
+    <T> Comparator<T> comparator(String orderBy) {
+        if (null == orderBy || orderBy.trim().isEmpty()) {
+            return null;
+        }
+        Comparator<T> comparator = null;
+        for (String order : orderBy.split(",")) {
+            String[] tokens = order.trim().split("\\s+");
+            String   name   = tokens[0].replaceAll("[`\"\\[\\]]", "");
+            name = name.substring(name.lastIndexOf('.') + 1);
+
+            int index = -1;
+            for (int i = 0; i < accessor.size(); i++) {
+                if (accessor.columnName(i).equalsIgnoreCase(name) || accessor.field(i).getName().equals(name)) {
+                    index = i;
+                }
+            }
+            ifThrow(index < 0 || tokens.length > 2, new AnimaException("can not merge the shards of "
+                    + modelClass.getSimpleName() + " ordered by " + order.trim()));
+
+            int           column = index;
+            Comparator<T> next   = Comparator.comparing(model -> comparable(accessor.get(model, column)),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (tokens.length > 1 && "DESC".equalsIgnoreCase(tokens[1])) {
+                next = next.reversed();
+            }
+            comparator = null == comparator ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    /**
+     * K-way merge of rows that are sorted by the comparator, in shard order without one.
+     */
+    static <T> List<T> merge(List<List<T>> lists, Comparator<? super T> comparator) {
+        int     size   = lists.stream().mapToInt(List::size).sum();
+        List<T> merged = new ArrayList<>(size);
+        if (null == comparator) {
+            lists.forEach(merged::addAll);
+            return merged;
+        }
+        int[]                  positions = new int[lists.size()];
+        PriorityQueue<Integer> heads     = new PriorityQueue<>(Math.max(1, lists.size()), (a, b) -> {
+            int result = comparator.compare(lists.get(a).get(positions[a]), lists.get(b).get(positions[b]));
+            return result != 0 ? result : Integer.compare(a, b);
+        });
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(i);
+            }
+        }
+        while (!heads.isEmpty()) {
+            int list = heads.poll();
+            merged.add(lists.get(list).get(positions[list]++));
+            if (positions[list] < lists.get(list).size()) {
+                heads.add(list);
+            }
+        }
+        return merged;
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import org.sql2o.Connection;
+
+import java.util.function.Supplier;
+
+/**
+ * Transaction Context
+ * <p>
+ * The transaction state of the threads using one {@link com.hellokaton.anima.Anima},
+ * a transaction of one instance is never joined by the queries of another.
+ */
+public class TransactionContext {
+
+    /**
+     * The innermost transaction of the current thread.
+     */
+    final ThreadLocal<TransactionStatus> current = new ThreadLocal<>();
+
+    /**
+     * When the current thread last wrote, its reads stay on the primary for
+     * {@link com.hellokaton.anima.Anima#stickyReadWindow()}.
+     */
+    final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    /**
+     * @return the connection of the transaction of the current thread, null outside a transaction
+     */
+    public Connection connection() {
+        TransactionStatus status = current.get();
+        return null != status ? status.connection : null;
+    }
+
+    /**
+     * @return the innermost transaction of the current thread, null outside a transaction
+     */
+    public TransactionStatus status() {
+        return current.get();
+    }
+
+    public boolean inTransaction() {
+        return null != current.get();
+    }
+
+    /**
+     * Run on a worker thread with the last write of the calling thread, the worker
+     * keeps neither that nor the writes of the supplier afterwards.
+     */
+    <R> R withLastWrite(Long writtenAt, Supplier<R> supplier) {
+        Long previous = lastWrite.get();
+        set(lastWrite, writtenAt);
+        try {
+            return supplier.get();
+        } finally {
+            set(lastWrite, previous);
+        }
+    }
+
+    private static void set(ThreadLocal<Long> threadLocal, Long value) {
+        if (null != value) {
+            threadLocal.set(value);
+        } else {
+            threadLocal.remove();
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import com.hellokaton.anima.enums.Isolation;
+import com.hellokaton.anima.enums.Propagation;
+import com.hellokaton.anima.exception.AnimaException;
+
+import static com.hellokaton.anima.utils.Functions.ifThrow;
+
+/**
+ * Transaction Options
+ * <p>
+ * The propagation, isolation level and read-only hint of a transaction,
+ * see {@link com.hellokaton.anima.Anima#atomic(TransactionOptions, Runnable)}.
+ * The isolation level and read-only hint only apply when a new transaction begins,
+ * a joined or nested transaction runs with the ones of the transaction it is part of.
+ */
+public class TransactionOptions {
+
+    private final Propagation propagation;
+    private       Isolation   isolation = Isolation.DEFAULT;
+    private       boolean     readOnly;
+
+    private TransactionOptions(Propagation propagation) {
+        this.propagation = propagation;
+    }
+
+    public static TransactionOptions of(Propagation propagation) {
+        ifThrow(null == propagation, new AnimaException("propagation not be null."));
+        return new TransactionOptions(propagation);
+    }
+
+    public static TransactionOptions required() {
+        return of(Propagation.REQUIRED);
+    }
+
+    public static TransactionOptions requiresNew() {
+        return of(Propagation.REQUIRES_NEW);
+    }
+
+    public static TransactionOptions nested() {
+        return of(Propagation.NESTED);
+    }
+
+    public Propagation propagation() {
+        return this.propagation;
+    }
+
+    /**
+     * Set the isolation level applied to the connection of a new transaction.
+     *
+     * @param isolation isolation level
+     * @return TransactionOptions
+     */
+    public TransactionOptions isolation(Isolation isolation) {
+        ifThrow(null == isolation, new AnimaException("isolation not be null."));
+        this.isolation = isolation;
+        return this;
+    }
+
+    public Isolation isolation() {
+        return this.isolation;
+    }
+
+    /**
+     * Mark a new transaction read-only, the connection is set read-only so the driver can optimize it,
+     * the transaction runs on a read replica when there are any and writes through Anima are rejected.
+     *
+     * @param readOnly read-only transaction
+     * @return TransactionOptions
+     */
+    public TransactionOptions readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    public boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+}
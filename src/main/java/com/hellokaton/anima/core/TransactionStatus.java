@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.core;
+
+import org.sql2o.Connection;
+
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transaction Status
+ * <p>
+ * One begun transaction of a thread, either a new transaction on its own connection,
+ * a savepoint of the enclosing transaction or the enclosing transaction joined.
+ */
+public class TransactionStatus {
+
+    final TransactionOptions options;
+    final Connection         connection;
+
+    /**
+     * The status the thread was in before, restored when this one ends.
+     */
+    final TransactionStatus parent;
+
+    /**
+     * The status of the new transaction this one is part of, itself when it began one.
+     */
+    final TransactionStatus root;
+
+    /**
+     * The new transaction or savepoint this status commits or rolls back with, itself unless it joined.
+     */
+    final TransactionStatus owner;
+
+    final Savepoint savepoint;
+
+    /**
+     * Tables written in the new transaction, only kept by the root.
+     */
+    final Set<String> writtenTables;
+
+    /**
+     * Primary keys of the models evicted from the entity cache in the new transaction by model class,
+     * a null set stands for all models of the class, only kept by the root.
+     */
+    final Map<Class<?>, Set<Object>> evictedModels;
+
+    final boolean readOnly;
+
+    boolean rollbackOnly;
+    boolean completed;
+
+    /**
+     * A new transaction.
+     */
+    TransactionStatus(TransactionOptions options, Connection connection, TransactionStatus parent) {
+        this.options = options;
+        this.connection = connection;
+        this.parent = parent;
+        this.root = this;
+        this.owner = this;
+        this.savepoint = null;
+        this.writtenTables = new HashSet<>();
+        this.evictedModels = new HashMap<>();
+        this.readOnly = options.isReadOnly();
+    }
+
+    /**
+     * A savepoint of the current transaction, or the current transaction joined when the savepoint is null.
+     */
+    TransactionStatus(TransactionOptions options, TransactionStatus parent, Savepoint savepoint) {
+        this.options = options;
+        this.connection = parent.connection;
+        this.parent = parent;
+        this.root = parent.root;
+        this.owner = null != savepoint ? this : parent.owner;
+        this.savepoint = savepoint;
+        this.writtenTables = null;
+        this.evictedModels = null;
+        this.readOnly = root.readOnly;
+    }
+
+    /**
+     * Remember a model evicted from the entity cache, so it is evicted again when the transaction ends.
+     *
+     * @param modelClass model type
+     * @param key        entity key, null for all models of the class
+     */
+    void evicted(Class<?> modelClass, Object key) {
+        if (null == key) {
+            evictedModels.put(modelClass, null);
+        } else if (!evictedModels.containsKey(modelClass) || null != evictedModels.get(modelClass)) {
+            evictedModels.computeIfAbsent(modelClass, type -> new HashSet<>()).add(key);
+        }
+    }
+
+    public TransactionOptions options() {
+        return options;
+    }
+
+    /**
+     * @return true when this status began a new transaction on its own connection
+     */
+    public boolean isNewTransaction() {
+        return root == this;
+    }
+
+    /**
+     * @return true when this status runs in a savepoint of the enclosing transaction
+     */
+    public boolean isNested() {
+        return null != savepoint;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Roll the transaction back at its end instead of committing it,
+     * a joined transaction marks the transaction or savepoint it joined.
+     */
+    public void setRollbackOnly() {
+        owner.rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return owner.rollbackOnly;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+}
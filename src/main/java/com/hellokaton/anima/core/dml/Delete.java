@@ -15,9 +15,11 @@
  */
 package com.hellokaton.anima.core.dml;
 
+import com.hellokaton.anima.Anima;
 import com.hellokaton.anima.Model;
 import com.hellokaton.anima.core.AnimaQuery;
 import com.hellokaton.anima.enums.DMLType;
+import lombok.NoArgsConstructor;
 
 /**
  * Delete From
@@ -25,10 +27,22 @@ import com.hellokaton.anima.enums.DMLType;
  * @author biezhi
  * @date 2018/3/18
  */
+@NoArgsConstructor
 public class Delete {
 
+    private Anima anima;
+
+    /**
+     * Open a delete statement of the given Anima instance instead of the default one.
+     *
+     * @param anima anima instance
+     */
+    public Delete(Anima anima) {
+        this.anima = anima;
+    }
+
     public <T extends Model> AnimaQuery<T> from(Class<T> modelClass) {
-        return new AnimaQuery<T>(DMLType.DELETE).parse(modelClass);
+        return new AnimaQuery<T>(anima, DMLType.DELETE).parse(modelClass);
     }
 
 }
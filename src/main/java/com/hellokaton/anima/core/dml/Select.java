@@ -15,6 +15,7 @@
  */
 package com.hellokaton.anima.core.dml;
 
+import com.hellokaton.anima.Anima;
 import com.hellokaton.anima.Model;
 import com.hellokaton.anima.core.AnimaQuery;
 import com.hellokaton.anima.core.ResultList;
@@ -31,22 +32,35 @@ import java.util.Map;
 @NoArgsConstructor
 public class Select {
 
+    private Anima anima;
+
     private String columns;
 
     public Select(String columns) {
         this.columns = columns;
     }
 
+    /**
+     * Open a query statement of the given Anima instance instead of the default one.
+     *
+     * @param anima   anima instance
+     * @param columns column names, null for all columns
+     */
+    public Select(Anima anima, String columns) {
+        this.anima = anima;
+        this.columns = columns;
+    }
+
     public <T extends Model> AnimaQuery<T> from(Class<T> modelClass) {
-        return new AnimaQuery<>(modelClass).select(this.columns);
+        return new AnimaQuery<>(anima, modelClass).select(this.columns);
     }
 
     public <T> ResultList<T> bySQL(Class<T> type, String sql, Object... params) {
-        return new ResultList<>(type, sql, params);
+        return new ResultList<>(anima, type, sql, params);
     }
 
     public <T extends Map<String, Object>> ResultList<T> bySQL(String sql, Object... params) {
-        return new ResultList<>(null, sql, params);
+        return new ResultList<>(anima, null, sql, params);
     }
 
 }
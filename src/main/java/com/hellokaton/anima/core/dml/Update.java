@@ -15,9 +15,11 @@
  */
 package com.hellokaton.anima.core.dml;
 
+import com.hellokaton.anima.Anima;
 import com.hellokaton.anima.Model;
 import com.hellokaton.anima.core.AnimaQuery;
 import com.hellokaton.anima.enums.DMLType;
+import lombok.NoArgsConstructor;
 
 /**
  * Update
@@ -25,10 +27,22 @@ import com.hellokaton.anima.enums.DMLType;
  * @author biezhi
  * @date 2018/3/18
  */
+@NoArgsConstructor
 public class Update {
 
+    private Anima anima;
+
+    /**
+     * Open a update statement of the given Anima instance instead of the default one.
+     *
+     * @param anima anima instance
+     */
+    public Update(Anima anima) {
+        this.anima = anima;
+    }
+
     public <T extends Model> AnimaQuery<T> from(Class<T> modelClass) {
-        return new AnimaQuery<T>(DMLType.UPDATE).parse(modelClass);
+        return new AnimaQuery<T>(anima, DMLType.UPDATE).parse(modelClass);
     }
 
 }
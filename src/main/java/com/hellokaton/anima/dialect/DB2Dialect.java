@@ -1,5 +1,8 @@
 package com.hellokaton.anima.dialect;
 
+import com.hellokaton.anima.core.SQLParams;
+import com.hellokaton.anima.utils.AnimaUtils;
+
 /**
  * DB2 dialect
  *
@@ -8,4 +11,22 @@ package com.hellokaton.anima.dialect;
  */
 public class DB2Dialect extends OracleDialect {
 
+    /**
+     * DB2 has no INSERT ALL of Oracle, it takes the multi-row VALUES of the standard.
+     */
+    @Override
+    public String insertMulti(SQLParams sqlParams, int rows) {
+        return AnimaUtils.insertRows(insert(sqlParams), sqlParams.getColumnValues(), rows);
+    }
+
+    @Override
+    public int maxParameters() {
+        return 32767;
+    }
+
+    @Override
+    public String estimatedCount() {
+        return null;
+    }
+
 }
@@ -1,10 +1,11 @@
 package com.hellokaton.anima.dialect;
 
 import com.hellokaton.anima.core.AnimaCache;
+import com.hellokaton.anima.core.ModelAccessor;
 import com.hellokaton.anima.core.SQLParams;
+import com.hellokaton.anima.enums.OrderBy;
 import com.hellokaton.anima.utils.AnimaUtils;
 import com.hellokaton.anima.utils.Functions;
-import com.hellokaton.anima.exception.AnimaException;
 
 import java.lang.reflect.Field;
 import java.util.List;
@@ -80,6 +81,34 @@ public interface Dialect {
         return sql.toString();
     }
 
+    /**
+     * Build a insert statement of multiple rows, like "INSERT INTO t (a, b) VALUES (?, ?), (?, ?)".
+     * <p>
+     * The caller keeps the bound parameter count within {@link #maxParameters()}
+     * and the row count within {@link #maxInsertRows()}.
+     *
+     * @param sqlParams sql params of the first row
+     * @param rows      number of rows
+     * @return insert sql
+     */
+    default String insertMulti(SQLParams sqlParams, int rows) {
+        return AnimaUtils.insertRows(insert(sqlParams), sqlParams.getColumnValues(), rows);
+    }
+
+    /**
+     * The maximum number of parameters the driver accepts in one statement.
+     */
+    default int maxParameters() {
+        return 32767;
+    }
+
+    /**
+     * The maximum number of rows in one multiple rows insert statement.
+     */
+    default int maxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
     default String update(SQLParams sqlParams) {
         StringBuilder sql = new StringBuilder();
         sql.append("UPDATE ").append(sqlParams.getTableName()).append(" SET ");
@@ -90,15 +119,10 @@ public interface Dialect {
             sqlParams.getUpdateColumns().forEach((key, value) -> setSQL.append(key).append(" = ?, "));
         } else {
             if (null != sqlParams.getModel()) {
-                for (Field field : AnimaCache.computeModelFields(sqlParams.getModelClass())) {
-                    try {
-                        Object value = AnimaUtils.invokeMethod(sqlParams.getModel(), AnimaCache.getGetterName(field.getName()), AnimaUtils.EMPTY_ARG);
-                        if (null == value) {
-                            continue;
-                        }
-                        setSQL.append(AnimaCache.getColumnName(field)).append(" = ?, ");
-                    } catch (IllegalArgumentException e) {
-                        throw new AnimaException("illegal argument or Access:", e);
+                ModelAccessor accessor = AnimaCache.computeModelAccessor(sqlParams.getModelClass());
+                for (int i = 0; i < accessor.size(); i++) {
+                    if (null != accessor.get(sqlParams.getModel(), i)) {
+                        setSQL.append(accessor.columnName(i)).append(" = ?, ");
                     }
                 }
             }
@@ -119,15 +143,10 @@ public interface Dialect {
         } else {
             if (null != sqlParams.getModel()) {
                 StringBuilder columnNames = new StringBuilder();
-                for (Field field : AnimaCache.computeModelFields(sqlParams.getModelClass())) {
-                    try {
-                        Object value = AnimaUtils.invokeMethod(sqlParams.getModel(), AnimaCache.getGetterName(field.getName()), AnimaUtils.EMPTY_ARG);
-                        if (null == value) {
-                            continue;
-                        }
-                        columnNames.append(AnimaCache.getColumnName(field)).append(" = ? and ");
-                    } catch (IllegalArgumentException e) {
-                        throw new AnimaException("illegal argument or Access:", e);
+                ModelAccessor accessor = AnimaCache.computeModelAccessor(sqlParams.getModelClass());
+                for (int i = 0; i < accessor.size(); i++) {
+                    if (null != accessor.get(sqlParams.getModel(), i)) {
+                        columnNames.append(accessor.columnName(i)).append(" = ? and ");
                     }
                 }
                 if (columnNames.length() > 0) {
@@ -140,4 +159,30 @@ public interface Dialect {
 
     String paginate(SQLParams sqlParams);
 
+    /**
+     * The keyset pagination condition, rows after (value, pk) in the order of the column and primary key.
+     * The placeholders are bound to {@link #seekParams(Object, Object)}.
+     *
+     * @param column  sort column
+     * @param pkName  primary key column
+     * @param orderBy order of both columns
+     * @return condition sql
+     */
+    default String seekCondition(String column, String pkName, OrderBy orderBy) {
+        String op = OrderBy.DESC == orderBy ? " < ?" : " > ?";
+        return "(" + column + op + " OR (" + column + " = ? AND " + pkName + op + "))";
+    }
+
+    default Object[] seekParams(Object value, Object pk) {
+        return new Object[]{value, value, pk};
+    }
+
+    /**
+     * A query of the row count estimated by the database statistics, the only placeholder
+     * is bound to the table name, null when the database has no estimate.
+     */
+    default String estimatedCount() {
+        return null;
+    }
+
 }
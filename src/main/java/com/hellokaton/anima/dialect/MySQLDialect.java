@@ -1,6 +1,7 @@
 package com.hellokaton.anima.dialect;
 
 import com.hellokaton.anima.core.SQLParams;
+import com.hellokaton.anima.enums.OrderBy;
 import com.hellokaton.anima.page.PageRow;
 
 /**
@@ -15,7 +16,7 @@ public class MySQLDialect implements Dialect {
     public String paginate(SQLParams sqlParams) {
         PageRow pageRow  = sqlParams.getPageRow();
         int     limit    = pageRow.getPageSize();
-        int     offset   = limit * (pageRow.getPageNum() - 1);
+        long    offset   = pageRow.getOffset();
         String  limitSQL = " LIMIT " + offset + "," + limit;
 
         StringBuilder sql = new StringBuilder();
@@ -23,4 +24,27 @@ public class MySQLDialect implements Dialect {
         return sql.toString();
     }
 
+    @Override
+    public int maxParameters() {
+        return 65535;
+    }
+
+    /**
+     * Row value comparison, "(column, pk) > (?, ?)" can use a (column, pk) index as one range.
+     */
+    @Override
+    public String seekCondition(String column, String pkName, OrderBy orderBy) {
+        return "(" + column + ", " + pkName + ")" + (OrderBy.DESC == orderBy ? " < " : " > ") + "(?, ?)";
+    }
+
+    @Override
+    public Object[] seekParams(Object value, Object pk) {
+        return new Object[]{value, pk};
+    }
+
+    @Override
+    public String estimatedCount() {
+        return "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+    }
+
 }
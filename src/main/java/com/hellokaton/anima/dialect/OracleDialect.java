@@ -15,10 +15,9 @@ public class OracleDialect implements Dialect {
     public String paginate(SQLParams sqlParams) {
         PageRow pageRow = sqlParams.getPageRow();
         int     limit   = pageRow.getPageSize();
-        int     pageNum = pageRow.getPageNum();
 
-        int           start = (pageNum - 1) * limit + 1;
-        int           end   = pageNum * limit;
+        long          start = pageRow.getOffset() + 1;
+        long          end   = pageRow.getOffset() + limit;
         StringBuilder sql   = new StringBuilder();
         sql.append("SELECT * FROM ( SELECT row_.*, rownum rownum_ FROM (  ");
         sql.append(select(sqlParams));
@@ -27,4 +26,25 @@ public class OracleDialect implements Dialect {
         return sql.toString();
     }
 
+    @Override
+    public String insertMulti(SQLParams sqlParams, int rows) {
+        String        into = insert(sqlParams).substring("INSERT".length());
+        StringBuilder sql  = new StringBuilder("INSERT ALL");
+        for (int i = 0; i < rows; i++) {
+            sql.append(into);
+        }
+        sql.append(" SELECT 1 FROM DUAL");
+        return sql.toString();
+    }
+
+    @Override
+    public int maxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public String estimatedCount() {
+        return "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = UPPER(?)";
+    }
+
 }
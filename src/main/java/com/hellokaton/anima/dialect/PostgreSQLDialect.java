@@ -1,6 +1,7 @@
 package com.hellokaton.anima.dialect;
 
 import com.hellokaton.anima.core.SQLParams;
+import com.hellokaton.anima.enums.OrderBy;
 import com.hellokaton.anima.page.PageRow;
 
 /**
@@ -15,11 +16,31 @@ public class PostgreSQLDialect implements Dialect {
     public String paginate(SQLParams sqlParams) {
         PageRow pageRow = sqlParams.getPageRow();
         int limit = pageRow.getPageSize();
-        int offset = limit * (pageRow.getPageNum() - 1);
+        long offset = pageRow.getOffset();
         String limitSQL = " LIMIT " + limit + " OFFSET " + offset;
 
         StringBuilder sql = new StringBuilder();
         sql.append(select(sqlParams)).append(limitSQL);
         return sql.toString();
     }
+
+    /**
+     * Row value comparison, "(column, pk) > (?, ?)" can use a (column, pk) index as one range.
+     */
+    @Override
+    public String seekCondition(String column, String pkName, OrderBy orderBy) {
+        return "(" + column + ", " + pkName + ")" + (OrderBy.DESC == orderBy ? " < " : " > ") + "(?, ?)";
+    }
+
+    @Override
+    public Object[] seekParams(Object value, Object pk) {
+        return new Object[]{value, pk};
+    }
+
+    @Override
+    public String estimatedCount() {
+        // resolved by the search path like the queries are, so same-named tables of other schemas are skipped
+        return "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(?)";
+    }
+
 }
@@ -8,4 +8,14 @@ package com.hellokaton.anima.dialect;
  */
 public class SQLiteDialect extends MySQLDialect {
 
+    @Override
+    public int maxParameters() {
+        return 999;
+    }
+
+    @Override
+    public String estimatedCount() {
+        return null;
+    }
+
 }
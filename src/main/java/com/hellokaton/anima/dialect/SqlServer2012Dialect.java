@@ -15,7 +15,7 @@ public class SqlServer2012Dialect implements Dialect {
     public String paginate(SQLParams sqlParams) {
         PageRow pageRow  = sqlParams.getPageRow();
         int     limit    = pageRow.getPageSize();
-        int     offset   = limit * (pageRow.getPageNum() - 1);
+        long    offset   = pageRow.getOffset();
         String  limitSQL = " OFFSET " + offset + " ROWS FETCH NEXT " + limit+ " ROWS ONLY ";
 
         StringBuilder sql = new StringBuilder();
@@ -28,4 +28,22 @@ public class SqlServer2012Dialect implements Dialect {
         return sql.toString();
     }
 
+    /**
+     * 2100 less the 2 parameters of sp_executesql, see {@link SqlServerDialect#maxParameters()}.
+     */
+    @Override
+    public int maxParameters() {
+        return 2098;
+    }
+
+    @Override
+    public int maxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public String estimatedCount() {
+        return "SELECT SUM(row_count) FROM sys.dm_db_partition_stats WHERE object_id = OBJECT_ID(?) AND index_id < 2";
+    }
+
 }
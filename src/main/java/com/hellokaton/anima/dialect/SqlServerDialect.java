@@ -15,12 +15,11 @@ public class SqlServerDialect implements Dialect {
     public String paginate(SQLParams sqlParams) {
         PageRow pageRow = sqlParams.getPageRow();
         int     limit   = pageRow.getPageSize();
-        int     pageNum = pageRow.getPageNum();
 
-        int end = pageNum * limit;
+        long end = pageRow.getOffset() + limit;
         if (end <= 0)
             end = limit;
-        int begin = (pageNum - 1) * limit + 1;
+        long begin = pageRow.getOffset() + 1;
         if (begin < 1)
             begin = 1;
 
@@ -33,4 +32,23 @@ public class SqlServerDialect implements Dialect {
         return sql.toString();
     }
 
+    /**
+     * SQL Server takes 2100 parameters per request, and sp_executesql / sp_prepexec
+     * that run the prepared statements use 2 of them for the statement and its declarations.
+     */
+    @Override
+    public int maxParameters() {
+        return 2098;
+    }
+
+    @Override
+    public int maxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public String estimatedCount() {
+        return "SELECT SUM(row_count) FROM sys.dm_db_partition_stats WHERE object_id = OBJECT_ID(?) AND index_id < 2";
+    }
+
 }
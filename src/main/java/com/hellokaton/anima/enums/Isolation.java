@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Transaction isolation levels, see {@link java.sql.Connection#setTransactionIsolation(int)}.
+ */
+@Getter
+@AllArgsConstructor
+public enum Isolation {
+
+    /**
+     * The isolation level of the {@link org.sql2o.Sql2o} instance, read committed unless it was set.
+     */
+    DEFAULT(-1),
+    READ_UNCOMMITTED(java.sql.Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(java.sql.Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(java.sql.Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(java.sql.Connection.TRANSACTION_SERIALIZABLE);
+
+    private int level;
+
+}
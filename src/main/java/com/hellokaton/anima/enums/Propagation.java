@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.enums;
+
+/**
+ * How a transaction relates to the transaction the thread is already in.
+ */
+public enum Propagation {
+
+    /**
+     * Join the current transaction, or begin one when there is none.
+     * A failure inside marks the whole transaction rollback-only.
+     */
+    REQUIRED,
+
+    /**
+     * Suspend the current transaction and run in a new one on another connection,
+     * it commits or rolls back on its own.
+     */
+    REQUIRES_NEW,
+
+    /**
+     * Run in a savepoint of the current transaction, or begin one when there is none.
+     * A failure inside rolls back to the savepoint only.
+     */
+    NESTED
+
+}
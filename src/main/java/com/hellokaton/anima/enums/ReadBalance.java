@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.enums;
+
+/**
+ * How reads are spread over the read replicas.
+ */
+public enum ReadBalance {
+
+    /**
+     * Every read goes to the next replica in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Every read goes to the replica with the fewest connections Anima has open on it.
+     */
+    LEAST_IN_FLIGHT
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.enums;
+
+/**
+ * How a shard key picks its shard.
+ */
+public enum ShardStrategy {
+
+    /**
+     * Integral keys modulo the number of shards, other keys by the hash code of their string.
+     */
+    HASH,
+
+    /**
+     * Numeric keys by the range bounds of {@link com.hellokaton.anima.annotation.Sharded#ranges()}.
+     */
+    RANGE
+
+}
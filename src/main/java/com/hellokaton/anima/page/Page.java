@@ -55,6 +55,11 @@ public class Page<T> {
      */
     private long totalRows = 0L;
 
+    /**
+     * whether totalRows is the exact number of rows, or an estimate or lower bound
+     */
+    private boolean exactTotal = true;
+
     /**
      * row list
      */
@@ -92,6 +97,7 @@ public class Page<T> {
 
     public <R> Page<R> map(Function<? super T, ? extends R> mapper) {
         Page<R> page = new Page<>(this.totalRows, this.pageNum, this.limit);
+        page.setExactTotal(this.exactTotal);
         if (null != rows) {
             page.setRows(rows.stream().map(mapper).collect(Collectors.toList()));
         }
@@ -118,6 +124,20 @@ public class Page<T> {
         init(total, page, limit);
     }
 
+    /**
+     * A page whose total is not counted, the total is the lower bound known from the rows read.
+     *
+     * @param rows        rows of the page, at most limit
+     * @param page        page number
+     * @param limit       number each page
+     * @param hasNextPage whether more rows follow this page
+     */
+    public Page(List<T> rows, int page, int limit, boolean hasNextPage) {
+        init((long) limit * (page - 1) + rows.size() + (hasNextPage ? 1 : 0), page, limit);
+        this.rows = rows;
+        this.exactTotal = false;
+    }
+
     private void init(long total, int pageNum, int limit) {
         // set basic params
         this.totalRows = total;
@@ -23,9 +23,18 @@ public class PageRow {
     private int pageNum;
     private int pageSize;
 
+    /**
+     * rows skipped before the page, pageSize * (pageNum - 1) when null
+     */
+    private Long offset;
+
     public PageRow(int pageNum, int pageSize) {
         this.pageNum = pageNum;
         this.pageSize = pageSize;
     }
 
+    public long getOffset() {
+        return null != offset ? offset : (long) pageSize * (pageNum - 1);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.page;
+
+import com.hellokaton.anima.exception.AnimaException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Encodes the key of the last row of a {@link SeekPage} as an url safe token.
+ * <p>
+ * Every value is written as a type tag and its text, tokens usually come back from clients
+ * so they are parsed by type only and never deserialized.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SeekCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static String encode(Object... values) {
+        StringBuilder token = new StringBuilder();
+        for (Object value : values) {
+            if (token.length() > 0) {
+                token.append('.');
+            }
+            token.append(tag(value)).append(ENCODER.encodeToString(text(value).getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    public static Object[] decode(String token) {
+        try {
+            String[] parts  = token.split("\\.");
+            Object[] values = new Object[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                String text = new String(DECODER.decode(parts[i].substring(1)), StandardCharsets.UTF_8);
+                values[i] = parse(parts[i].charAt(0), text);
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new AnimaException("illegal seek cursor: " + token, e);
+        }
+    }
+
+    private static char tag(Object value) {
+        if (null == value) throw new AnimaException("seek columns should not be null.");
+        if (value instanceof String) return 's';
+        if (value instanceof Integer) return 'i';
+        if (value instanceof Long) return 'l';
+        if (value instanceof Short) return 'h';
+        if (value instanceof Byte) return 'b';
+        if (value instanceof Double) return 'd';
+        if (value instanceof Float) return 'f';
+        if (value instanceof BigDecimal) return 'm';
+        if (value instanceof BigInteger) return 'n';
+        if (value instanceof Boolean) return 'z';
+        if (value instanceof Timestamp) return 'T';
+        if (value instanceof Date) return 't';
+        if (value instanceof LocalDate) return 'D';
+        if (value instanceof LocalDateTime) return 'L';
+        throw new AnimaException("unsupported seek column type: " + value.getClass().getName());
+    }
+
+    private static String text(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toString();
+        }
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        return value.toString();
+    }
+
+    private static Object parse(char tag, String text) {
+        switch (tag) {
+            case 's':
+                return text;
+            case 'i':
+                return Integer.valueOf(text);
+            case 'l':
+                return Long.valueOf(text);
+            case 'h':
+                return Short.valueOf(text);
+            case 'b':
+                return Byte.valueOf(text);
+            case 'd':
+                return Double.valueOf(text);
+            case 'f':
+                return Float.valueOf(text);
+            case 'm':
+                return new BigDecimal(text);
+            case 'n':
+                return new BigInteger(text);
+            case 'z':
+                return Boolean.valueOf(text);
+            case 'T':
+                return Timestamp.valueOf(text);
+            case 't':
+                return new Date(Long.parseLong(text));
+            case 'D':
+                return LocalDate.parse(text);
+            case 'L':
+                return LocalDateTime.parse(text);
+            default:
+                throw new IllegalArgumentException("unknown type tag " + tag);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.page;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of keyset pagination, see {@link com.hellokaton.anima.core.AnimaQuery#seek(String, int)}.
+ * <p>
+ * Instead of page numbers it carries the cursor of the next page,
+ * so every page costs the same no matter how deep it is.
+ */
+@Data
+public class SeekPage<T> {
+
+    /**
+     * How many rows per page
+     */
+    private int limit;
+
+    /**
+     * row list
+     */
+    private List<T> rows;
+
+    /**
+     * cursor of the next page, null on the last page
+     */
+    private String nextCursor;
+
+    public SeekPage() {
+    }
+
+    public SeekPage(int limit, List<T> rows, String nextCursor) {
+        this.limit = limit;
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNextPage() {
+        return null != nextCursor;
+    }
+
+    public <R> SeekPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = null != rows ? rows.stream().map(mapper).collect(Collectors.toList()) : null;
+        return new SeekPage<>(this.limit, mapped, this.nextCursor);
+    }
+
+}
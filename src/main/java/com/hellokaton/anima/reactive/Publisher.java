@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.reactive;
+
+/**
+ * A provider of a potentially unbounded number of rows, published to a {@link Subscriber}
+ * only as fast as the subscriber asks for them.
+ * <p>
+ * Same contract as {@code java.util.concurrent.Flow.Publisher} and the Reactive Streams publisher,
+ * Anima targets Java 8 so it ships its own copy of the three interfaces.
+ *
+ * @param <T> the published item type
+ */
+@FunctionalInterface
+public interface Publisher<T> {
+
+    /**
+     * Subscribe to the rows, every subscription runs the query again.
+     *
+     * @param subscriber the subscriber, not null
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.reactive;
+
+/**
+ * Receiver of the items of a {@link Publisher}, see {@code java.util.concurrent.Flow.Subscriber}.
+ * <p>
+ * No item is sent before it has been requested through the {@link Subscription},
+ * the signals of one subscription never overlap.
+ *
+ * @param <T> the subscribed item type
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Called once before any other signal of the subscription.
+     *
+     * @param subscription the subscription to request items or cancel with
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * The next item, called at most as many times as items have been requested.
+     *
+     * @param item the item
+     */
+    void onNext(T item);
+
+    /**
+     * The subscription failed, no other signal follows.
+     *
+     * @param throwable the failure
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * All items have been sent, no other signal follows.
+     */
+    void onComplete();
+
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2018, biezhi 王爵 (biezhi.me@gmail.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hellokaton.anima.reactive;
+
+/**
+ * Link between a {@link Publisher} and one {@link Subscriber},
+ * see {@code java.util.concurrent.Flow.Subscription}.
+ */
+public interface Subscription {
+
+    /**
+     * Ask for up to n more items, a nonpositive n fails the subscription
+     * with an {@link IllegalArgumentException}.
+     *
+     * @param n the number of items, {@link Long#MAX_VALUE} for no limit
+     */
+    void request(long n);
+
+    /**
+     * Stop sending items and release the resources of the subscription.
+     */
+    void cancel();
+
+}
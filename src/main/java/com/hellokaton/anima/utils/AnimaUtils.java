@@ -18,6 +18,7 @@ package com.hellokaton.anima.utils;
 import com.hellokaton.blade.asm.MethodAccess;
 import com.hellokaton.anima.Model;
 import com.hellokaton.anima.core.AnimaCache;
+import com.hellokaton.anima.core.ModelAccessor;
 import com.hellokaton.anima.exception.AnimaException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -89,19 +90,12 @@ public class AnimaUtils {
     }
 
     public static <T extends Model> List<Object> toColumnValues(T model, boolean allowNull) {
-        List<Object> columnValueList = new ArrayList<>();
-        for (Field field : AnimaCache.computeModelFields(model.getClass())) {
-            try {
-                Object value = invokeMethod(model, AnimaCache.getGetterName(field.getName()), EMPTY_ARG);
-                if (null == value) {
-                    if (allowNull) {
-                        columnValueList.add(null);
-                    }
-                    continue;
-                }
+        ModelAccessor accessor        = AnimaCache.computeModelAccessor(model.getClass());
+        List<Object>  columnValueList = new ArrayList<>(accessor.size());
+        for (int i = 0; i < accessor.size(); i++) {
+            Object value = accessor.get(model, i);
+            if (null != value || allowNull) {
                 columnValueList.add(value);
-            } catch (IllegalArgumentException e) {
-                throw new AnimaException("illegal argument or Access:", e);
             }
         }
         return columnValueList;
@@ -121,11 +115,41 @@ public class AnimaUtils {
         return "*";
     }
 
+    /**
+     * Build the placeholders of the non-null values, like "(?, ?, ?)"
+     *
+     * @param columnValues column values
+     * @return placeholders
+     */
+    public static String placeholders(List<Object> columnValues) {
+        StringBuilder placeholder = new StringBuilder("(");
+        for (Object value : columnValues) {
+            if (null != value) {
+                placeholder.append(placeholder.length() > 1 ? ", ?" : "?");
+            }
+        }
+        return placeholder.append(')').toString();
+    }
+
+    /**
+     * Repeat the placeholders of the first row, like "INSERT INTO t (a, b) VALUES (?, ?), (?, ?)"
+     *
+     * @param insert       insert statement of the first row
+     * @param columnValues column values of the first row
+     * @param rows         number of rows
+     * @return insert sql
+     */
+    public static String insertRows(String insert, List<Object> columnValues, int rows) {
+        String        values = placeholders(columnValues);
+        StringBuilder sql    = new StringBuilder(insert);
+        for (int i = 1; i < rows; i++) {
+            sql.append(", ").append(values);
+        }
+        return sql.toString();
+    }
+
     public static Object invokeMethod(Object target, String methodName, Object[] args) {
-        MethodAccess methodAccess = AnimaCache.METHOD_ACCESS_MAP.computeIfAbsent(target.getClass(), type -> {
-            List<Method> methods = Arrays.asList(type.getDeclaredMethods());
-            return MethodAccess.get(type, methods);
-        });
+        MethodAccess methodAccess = AnimaCache.computeMethodAccess(target.getClass());
         return methodAccess.invokeWithCache(target, methodName, args);
     }
 
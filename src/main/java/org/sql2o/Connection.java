@@ -7,11 +7,14 @@ import org.sql2o.converters.ConverterException;
 import org.sql2o.quirks.Quirks;
 
 import java.io.Closeable;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 
@@ -247,6 +250,91 @@ public class Connection implements AutoCloseable, Closeable {
 
     private final Set<Statement> statements = new HashSet<>();
 
+    /**
+     * Idle prepared statements of this connection in least recently used order,
+     * a statement is removed while a query uses it so it is never shared by two open queries.
+     */
+    private LinkedHashMap<String, PreparedStatement> cachedStatements;
+
+    boolean isStatementCacheEnabled() {
+        return sql2o.getStatementCacheSize() > 0;
+    }
+
+    /**
+     * Take a cached statement, or prepare a new one when none is idle.
+     */
+    PreparedStatement prepareCachedStatement(String sql, boolean returnGeneratedKeys, String[] columnNames) throws SQLException {
+        String            key       = statementKey(sql, returnGeneratedKeys, columnNames);
+        PreparedStatement statement = null == cachedStatements ? null : cachedStatements.remove(key);
+        if (null == statement || statement.isClosed()) {
+            if (columnNames != null && columnNames.length > 0) {
+                statement = jdbcConnection.prepareStatement(sql, columnNames);
+            } else if (returnGeneratedKeys) {
+                statement = jdbcConnection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            } else {
+                statement = jdbcConnection.prepareStatement(sql);
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * Give a statement back to the cache, the least recently used one is closed when the cache is full.
+     */
+    void releaseCachedStatement(String sql, boolean returnGeneratedKeys, String[] columnNames, PreparedStatement statement) {
+        statements.remove(statement);
+        try {
+            if (statement.isClosed()) {
+                return;
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            log.warn("Could not reset statement, it will be closed.", e);
+            closeStatement(statement);
+            return;
+        }
+
+        if (null == cachedStatements) {
+            cachedStatements = new LinkedHashMap<>(16, 0.75f, true);
+        }
+        PreparedStatement previous = cachedStatements.put(statementKey(sql, returnGeneratedKeys, columnNames), statement);
+        if (null != previous && previous != statement) {
+            closeStatement(previous);
+        }
+
+        Iterator<PreparedStatement> iterator = cachedStatements.values().iterator();
+        while (cachedStatements.size() > sql2o.getStatementCacheSize() && iterator.hasNext()) {
+            closeStatement(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static String statementKey(String sql, boolean returnGeneratedKeys, String[] columnNames) {
+        if (columnNames != null && columnNames.length > 0) {
+            return String.join(",", columnNames) + ':' + sql;
+        }
+        return (returnGeneratedKeys ? "K:" : "N:") + sql;
+    }
+
+    private void closeCachedStatements() {
+        if (null == cachedStatements) {
+            return;
+        }
+        for (PreparedStatement statement : cachedStatements.values()) {
+            closeStatement(statement);
+        }
+        cachedStatements.clear();
+    }
+
+    private void closeStatement(Statement statement) {
+        try {
+            getSql2o().getQuirks().closeStatement(statement);
+        } catch (Throwable e) {
+            log.warn("Could not close statement.", e);
+        }
+    }
+
     void registerStatement(Statement statement) {
         statements.add(statement);
     }
@@ -266,13 +354,10 @@ public class Connection implements AutoCloseable, Closeable {
         if (!connectionIsClosed) {
 
             for (Statement statement : statements) {
-                try {
-                    getSql2o().getQuirks().closeStatement(statement);
-                } catch (Throwable e) {
-                    log.warn("Could not close statement.", e);
-                }
+                closeStatement(statement);
             }
             statements.clear();
+            closeCachedStatements();
 
             boolean rollback = rollbackOnClose;
             if (rollback) {
@@ -302,6 +387,7 @@ public class Connection implements AutoCloseable, Closeable {
     }
 
     private void closeJdbcConnection() {
+        closeCachedStatements();
         resetAutoCommitState();
         try {
             jdbcConnection.close();
@@ -6,9 +6,11 @@ import org.sql2o.quirks.Quirks;
 import org.sql2o.reflection.Getter;
 import org.sql2o.reflection.Pojo;
 import org.sql2o.reflection.PojoMetadata;
+import org.sql2o.reflection.PrimitiveSetter;
 import org.sql2o.reflection.Setter;
 import org.sql2o.tools.AbstractCache;
 
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -151,8 +153,11 @@ public class DefaultResultSetHandlerFactory<T> implements ResultSetHandlerFactor
     }
 
 
+    /**
+     * Handlers by POJO and column layout, bounded since every layout may own a generated class.
+     */
     private static final AbstractCache<Key,ResultSetHandler<?>,ResultSetMetaData>
-     c = new AbstractCache<Key, ResultSetHandler<?>, ResultSetMetaData>() {
+     c = new AbstractCache<Key, ResultSetHandler<?>, ResultSetMetaData>(2048) {
         @Override
         protected ResultSetHandler<?> evaluate(Key key, ResultSetMetaData param) {
             try {
@@ -163,11 +168,46 @@ public class DefaultResultSetHandlerFactory<T> implements ResultSetHandlerFactor
         }
     };
 
+    /**
+     * Handlers by POJO and sql text, a repeated statement finds its handler without reading the metadata.
+     * A statement like "SELECT *" returns other columns after the table changes, call {@link #clearCache()}
+     * after altering tables of a running application.
+     */
+    private static final AbstractCache<Key,ResultSetHandler<?>,ResultSet>
+     sqlCache = new AbstractCache<Key, ResultSetHandler<?>, ResultSet>(2048) {
+        @Override
+        protected ResultSetHandler<?> evaluate(Key key, ResultSet param) {
+            try {
+                return key.factory().newResultSetHandler(param.getMetaData());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    };
+
+    /**
+     * Forget all handlers, e.g. after the columns of a table changed.
+     */
+    public static void clearCache() {
+        sqlCache.clear();
+        c.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ResultSetHandler<T> newResultSetHandler(final String sql, final ResultSet resultSet) throws SQLException {
+        if (sql == null) {
+            return newResultSetHandler(resultSet.getMetaData());
+        }
+        return (ResultSetHandler<T>) sqlCache.get(new Key(sql, this), resultSet);
+    }
+
     @SuppressWarnings("unchecked")
     public ResultSetHandler<T> newResultSetHandler(final ResultSetMetaData meta) throws SQLException {
         StringBuilder stringBuilder = new StringBuilder();
         for (int i = 1; i <= meta.getColumnCount(); i++) {
-            stringBuilder.append(quirks.getColumnName(meta,i)).append("\n");
+            // typed reads depend on the column type as well as the name
+            stringBuilder.append(quirks.getColumnName(meta,i)).append(':').append(meta.getColumnType(i)).append("\n");
         }
         return (ResultSetHandler<T>) c.get(new Key(stringBuilder.toString(), this),meta);
 
@@ -216,6 +256,33 @@ public class DefaultResultSetHandlerFactory<T> implements ResultSetHandlerFactor
          * we're selecting 1 column, and no property setter exists for the column.
          */
         useExecuteScalar = converter != null && columnCount == 1 && setters[1] == null;
+        if (!useExecuteScalar) {
+            ResultSetHandler<T> generated = generateResultSetHandler(meta, setters);
+            if (generated != null) {
+                return generated;
+            }
+        }
+
+        // columns read with typed getters, straight into the unconverted setter
+        final TypedRead[]       reads            = new TypedRead[columnCount + 1];
+        final Setter[]          rawSetters       = new Setter[columnCount + 1];
+        final PrimitiveSetter[] primitiveSetters = new PrimitiveSetter[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            String colName = quirks.getColumnName(meta, i);
+            Setter setter  = setters[i] == null || colName.indexOf('.') > 0 ? null : metadata.getPropertySetterIfExists(colName);
+            if (setter == null) continue;
+
+            Class<?> type = setter.getType();
+            if (type.isPrimitive() && !(setter instanceof PrimitiveSetter)) continue;
+
+            TypedRead read = TypedRead.of(type, quirks.converterOf(type), meta.getColumnType(i));
+            if (read == null) continue;
+
+            reads[i] = read;
+            rawSetters[i] = setter;
+            primitiveSetters[i] = type.isPrimitive() ? (PrimitiveSetter) setter : null;
+        }
+
         return new ResultSetHandler<T>() {
             @SuppressWarnings("unchecked")
             public T handle(ResultSet resultSet) throws SQLException {
@@ -230,6 +297,15 @@ public class DefaultResultSetHandlerFactory<T> implements ResultSetHandlerFactor
                 // otherwise we want executeAndFetch with object mapping
                 Object pojo = metadata.getObjectConstructor().newInstance();
                 for (int colIdx = 1; colIdx <= columnCount; colIdx++) {
+                    TypedRead read = reads[colIdx];
+                    if (read != null) {
+                        if (primitiveSetters[colIdx] != null) {
+                            read.readPrimitive(resultSet, colIdx, primitiveSetters[colIdx], pojo);
+                        } else {
+                            rawSetters[colIdx].setProperty(pojo, read.readValue(resultSet, colIdx));
+                        }
+                        continue;
+                    }
                     Setter setter = setters[colIdx];
                     if (setter == null) continue;
                     setter.setProperty(pojo, quirks.getRSVal(resultSet, colIdx));
@@ -239,4 +315,28 @@ public class DefaultResultSetHandlerFactory<T> implements ResultSetHandlerFactor
             }
         };
     }
+
+    /**
+     * Generate a handler class for this column layout, null when generation is not possible.
+     */
+    private ResultSetHandler<T> generateResultSetHandler(final ResultSetMetaData meta, final Setter[] setters) throws SQLException {
+        final int         columnCount = meta.getColumnCount();
+        final Method[]    methods     = new Method[columnCount + 1];
+        final TypedRead[] reads       = new TypedRead[columnCount + 1];
+        boolean           typed       = false;
+        for (int i = 1; i <= columnCount; i++) {
+            String colName = quirks.getColumnName(meta, i);
+            if (setters[i] == null || colName.indexOf('.') > 0) continue;
+
+            Method method = metadata.getPropertySetterMethodIfExists(colName);
+            if (!ResultSetHandlerGenerator.isAccessible(method)) continue;
+
+            Class<?> type = method.getParameterTypes()[0];
+            reads[i] = TypedRead.of(type, quirks.converterOf(type), meta.getColumnType(i));
+            methods[i] = reads[i] != null ? method : null;
+            typed |= methods[i] != null;
+        }
+        // without setter methods to call the default handler reads as fast
+        return typed ? ResultSetHandlerGenerator.generate(metadata.getType(), setters, methods, reads, quirks) : null;
+    }
 }
@@ -10,6 +10,7 @@ import java.util.Properties;
 
 /**
  * Used internally by sql2o, if the {@link Sql2o#Sql2o(String, String, String)} constructor overload.
+ * Opens a new connection every time, see {@link PooledDatasource} to reuse them.
  */
 public class GenericDatasource implements DataSource {
 
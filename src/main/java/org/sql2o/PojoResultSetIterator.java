@@ -23,6 +23,15 @@ public class PojoResultSetIterator<T> extends ResultSetIteratorBase<T> {
         }
     }
 
+    public PojoResultSetIterator(ResultSet rs, boolean isCaseSensitive, Quirks quirks, ResultSetHandlerFactory<T> factory, String sql) {
+        super(rs, isCaseSensitive, quirks);
+        try {
+            this.handler = factory.newResultSetHandler(sql, rs);
+        } catch (SQLException e) {
+            throw new Sql2oException("Database error: " + e.getMessage(), e);
+        }
+    }
+
     public PojoResultSetIterator(ResultSet rs, boolean isCaseSensitive, Quirks quirks, ResultSetHandler<T> handler) {
         super(rs, isCaseSensitive, quirks);
         this.handler = handler;
@@ -0,0 +1,419 @@
+package org.sql2o;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of {@link java.sql.DriverManager} connections, for when a full connection pool is not at hand.
+ * <p>
+ * At most {@code maxSize} connections are open, a borrower waits up to the borrow timeout for one to be returned.
+ * Connections idle for longer than the idle timeout are closed down to {@code minSize}, and a connection
+ * that has not been used for a while is validated before it is handed out again.
+ * Closing a borrowed connection rolls back unfinished work, restores auto commit, isolation and read only
+ * and returns it to the pool.
+ * <pre>
+ * Anima.open(new PooledDatasource(url, user, pass, 2, 10));
+ * </pre>
+ */
+@Slf4j
+public class PooledDatasource extends GenericDatasource implements Closeable {
+
+    // connections returned this recently are handed out without a validation round trip
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    private static final AtomicInteger POOLS = new AtomicInteger();
+
+    private final int minSize;
+    private final int maxSize;
+
+    private final Semaphore                            permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService             housekeeper;
+
+    private final AtomicInteger total    = new AtomicInteger();
+    private final AtomicLong    created  = new AtomicLong();
+    private final AtomicLong    borrowed = new AtomicLong();
+    private final AtomicLong    timeouts = new AtomicLong();
+    private final AtomicLong    evicted  = new AtomicLong();
+
+    private volatile long    borrowTimeout     = 30_000;
+    private volatile long    idleTimeout       = 600_000;
+    private volatile int     validationTimeout = 5;
+    private volatile boolean closed;
+
+    public PooledDatasource(String url, String user, String password) {
+        this(url, user, password, 0, 10);
+    }
+
+    /**
+     * @param minSize the number of connections kept open when idle
+     * @param maxSize the maximum number of open connections
+     */
+    public PooledDatasource(String url, String user, String password, int minSize, int maxSize) {
+        super(url, user, password);
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool sizes should be 0 <= minSize <= maxSize and maxSize > 0.");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        String threadName = "sql2o-pool-" + POOLS.incrementAndGet();
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 0, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, close it to give it back.
+     *
+     * @throws SQLTimeoutException when no connection is returned within the borrow timeout
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeout + " ms waiting for one of "
+                        + maxSize + " pooled connections.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while (null != (pooled = idle.pollFirst())) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                evict(pooled);
+            }
+            if (null == pooled) {
+                pooled = create();
+            }
+            borrowed.incrementAndGet();
+            return pooled.borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the idle connections, borrowed connections are closed when they are given back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while (null != (pooled = idle.pollFirst())) {
+            evict(pooled);
+        }
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * @param borrowTimeout milliseconds to wait for a connection before failing
+     */
+    public void setBorrowTimeout(long borrowTimeout) {
+        if (borrowTimeout < 0) {
+            throw new IllegalArgumentException("borrowTimeout should be a nonnegative value.");
+        }
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @param idleTimeout milliseconds a connection may stay idle before it is closed, 0 keeps idle connections open
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException("idleTimeout should be a nonnegative value.");
+        }
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * @param validationTimeout seconds to wait for {@link Connection#isValid(int)} when validating on borrow
+     */
+    public void setValidationTimeout(int validationTimeout) {
+        if (validationTimeout < 0) {
+            throw new IllegalArgumentException("validationTimeout should be a nonnegative value.");
+        }
+        this.validationTimeout = validationTimeout;
+    }
+
+    /**
+     * @return the number of open connections, borrowed or idle
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of threads waiting for a connection
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getBorrowedCount() {
+        return borrowed.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return the number of connections closed because they were idle too long, invalid or broken
+     */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    private PooledConnection create() throws SQLException {
+        total.incrementAndGet();
+        try {
+            PooledConnection pooled = new PooledConnection(super.getConnection());
+            created.incrementAndGet();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleMillis = System.currentTimeMillis() - pooled.lastUsed;
+        if (idleTimeout > 0 && idleMillis > idleTimeout) {
+            return false;
+        }
+        if (idleMillis < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeout);
+        } catch (SQLException | AbstractMethodError e) {
+            return false;
+        }
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        try {
+            if (closed || pooled.broken || pooled.physical.isClosed()) {
+                evict(pooled);
+                return;
+            }
+            pooled.reset();
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            log.warn("Could not reset pooled connection, it will be closed.", e);
+            evict(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evict(PooledConnection pooled) {
+        evicted.incrementAndGet();
+        total.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            log.warn("Could not close pooled connection.", e);
+        }
+    }
+
+    /**
+     * Close the connections idle for too long and open connections up to the minimum size.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            if (idleTimeout > 0) {
+                for (PooledConnection pooled : idle) {
+                    if (total.get() > minSize && now - pooled.lastUsed > idleTimeout && idle.remove(pooled)) {
+                        evict(pooled);
+                    }
+                }
+            }
+            while (!closed && total.get() < minSize && permits.tryAcquire()) {
+                try {
+                    idle.offerLast(create());
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Connection pool housekeeping failed.", e);
+        }
+    }
+
+    /**
+     * A physical connection and the state it had when it was opened.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final boolean    autoCommit;
+        private final int        isolation;
+        private final boolean    readOnly;
+
+        private volatile long    lastUsed = System.currentTimeMillis();
+        private volatile boolean dirty;
+        private volatile boolean broken;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.autoCommit = physical.getAutoCommit();
+            this.isolation = physical.getTransactionIsolation();
+            this.readOnly = physical.isReadOnly();
+        }
+
+        Connection borrow() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Borrowed(this));
+        }
+
+        void reset() throws SQLException {
+            if (!dirty) {
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+            }
+            if (physical.getAutoCommit() != autoCommit) {
+                physical.setAutoCommit(autoCommit);
+            }
+            if (physical.getTransactionIsolation() != isolation) {
+                physical.setTransactionIsolation(isolation);
+            }
+            if (physical.isReadOnly() != readOnly) {
+                physical.setReadOnly(readOnly);
+            }
+            dirty = false;
+        }
+    }
+
+    /**
+     * The connection a borrower sees, close gives the physical connection back
+     * and every later call fails like on a closed connection.
+     */
+    private final class Borrowed implements InvocationHandler {
+
+        private final    PooledConnection pooled;
+        private volatile boolean          returned;
+
+        Borrowed(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    giveBack(pooled);
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + pooled.physical;
+                case "abort":
+                    pooled.broken = true;
+                    break;
+                case "setAutoCommit":
+                case "setTransactionIsolation":
+                case "setReadOnly":
+                    pooled.dirty = true;
+                    break;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("The connection is closed.");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    // connection exceptions, the physical connection can not be reused
+                    if (null != state && state.startsWith("08")) {
+                        pooled.broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+
+}
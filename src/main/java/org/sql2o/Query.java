@@ -1,6 +1,5 @@
 package org.sql2o;
 
-import com.hellokaton.anima.Anima;
 import lombok.extern.slf4j.Slf4j;
 import org.sql2o.converters.Converter;
 import org.sql2o.converters.ConverterException;
@@ -28,6 +27,7 @@ public class Query implements AutoCloseable {
     private       Map<String, String>  caseSensitiveColumnMappings;
     private       Map<String, String>  columnMappings;
     private       PreparedStatement    preparedStatement     = null;
+    private       boolean              cachedStatement;
     private       boolean              caseSensitive;
     private       boolean              autoDeriveColumnNames;
     private       boolean              throwOnMappingFailure = true;
@@ -37,6 +37,7 @@ public class Query implements AutoCloseable {
     private       String               parsedQuery;
     private       int                  maxBatchRecords       = 0;
     private       int                  currentBatchRecords   = 0;
+    private       int                  fetchSize             = 0;
     private       Map<Integer, Object> paramIndexValues      = new HashMap<>();
 
     private ResultSetHandlerFactoryBuilder resultSetHandlerFactoryBuilder;
@@ -108,6 +109,19 @@ public class Query implements AutoCloseable {
         return this;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Gives the JDBC driver a hint as to the number of rows that should be fetched from the database
+     * when more rows are needed. When set to 0 (the default) the driver default is used.
+     */
+    public Query setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
     public ResultSetHandlerFactoryBuilder getResultSetHandlerFactoryBuilder() {
         if (resultSetHandlerFactoryBuilder == null) {
             resultSetHandlerFactoryBuilder = new DefaultResultSetHandlerFactoryBuilder();
@@ -159,7 +173,9 @@ public class Query implements AutoCloseable {
     }
 
     public void close() {
-        if (preparedStatement != null) {
+        if (cachedStatement) {
+            releaseCachedStatement();
+        } else if (preparedStatement != null) {
             connection.removeStatement(preparedStatement);
             try {
                 this.getQuirks().closeStatement(preparedStatement);
@@ -184,13 +200,20 @@ public class Query implements AutoCloseable {
         // prepare statement creation
         if (preparedStatement == null) {
             try {
-                if (columnNames != null && columnNames.length > 0) {
+                cachedStatement = connection.isStatementCacheEnabled();
+                if (cachedStatement) {
+                    preparedStatement = connection.prepareCachedStatement(parsedQuery, returnGeneratedKeys, columnNames);
+                    preparedStatement.setFetchSize(fetchSize);
+                } else if (columnNames != null && columnNames.length > 0) {
                     preparedStatement = connection.getJdbcConnection().prepareStatement(parsedQuery, columnNames);
                 } else if (returnGeneratedKeys) {
                     preparedStatement = connection.getJdbcConnection().prepareStatement(parsedQuery, Statement.RETURN_GENERATED_KEYS);
                 } else {
                     preparedStatement = connection.getJdbcConnection().prepareStatement(parsedQuery);
                 }
+                if (fetchSize != 0 && !cachedStatement) {
+                    preparedStatement.setFetchSize(fetchSize);
+                }
             } catch (SQLException ex) {
                 throw new Sql2oException(String.format("Error preparing statement - %s", ex.getMessage()), ex);
             }
@@ -237,7 +260,7 @@ public class Query implements AutoCloseable {
                 if (rs != null) {
                     rs.close();
                     // log the query
-                    if (Anima.of().isEnableSQLStatistic() && log.isDebugEnabled()) {
+                    if (connection.getSql2o().isEnableSQLStatistic() && log.isDebugEnabled()) {
                         long afterClose = System.currentTimeMillis();
                         log.debug("Total       => {} ms, execution: {} ms, reading and parsing: {} ms; executed [{}]", afterClose - start,
                                 afterExecQuery - start,
@@ -249,6 +272,7 @@ public class Query implements AutoCloseable {
             } catch (SQLException ex) {
                 throw new Sql2oException("Error closing ResultSet.", ex);
             } finally {
+                releaseCachedStatement();
                 if (this.isAutoCloseConnection()) {
                     connection.close();
                 } else {
@@ -305,7 +329,7 @@ public class Query implements AutoCloseable {
         final Quirks quirks = getConnection().getSql2o().getQuirks();
         return new ResultSetIterableBase<T>() {
             public Iterator<T> iterator() {
-                return new PojoResultSetIterator<>(rs, isCaseSensitive(), quirks, resultSetHandlerFactory);
+                return new PojoResultSetIterator<>(rs, isCaseSensitive(), quirks, resultSetHandlerFactory, parsedQuery);
             }
         };
     }
@@ -398,10 +422,11 @@ public class Query implements AutoCloseable {
             this.connection.onException();
             throw new Sql2oException("Error in executeUpdate, " + ex.getMessage(), ex);
         } finally {
+            releaseCachedStatement();
             closeConnectionIfNecessary();
         }
 
-        if (Anima.of().isEnableSQLStatistic() && log.isDebugEnabled()) {
+        if (connection.getSql2o().isEnableSQLStatistic() && log.isDebugEnabled()) {
             long end = System.currentTimeMillis();
             log.debug("total: {} ms; executed update [{}]", end - start, this.getName() == null ? "No name" : this.getName());
         }
@@ -417,7 +442,7 @@ public class Query implements AutoCloseable {
             if (rs.next()) {
                 Object o = getQuirks().getRSVal(rs, 1);
 
-                if (Anima.of().isEnableSQLStatistic() && log.isDebugEnabled()) {
+                if (connection.getSql2o().isEnableSQLStatistic() && log.isDebugEnabled()) {
                     long end = System.currentTimeMillis();
                     log.debug("total: {} ms; executed scalar [{}]", end - start, this.getName() == null ? "No name" : this.getName());
                 }
@@ -430,6 +455,7 @@ public class Query implements AutoCloseable {
             this.connection.onException();
             throw new Sql2oException("Database error occurred while running executeScalar: " + e.getMessage(), e);
         } finally {
+            releaseCachedStatement();
             closeConnectionIfNecessary();
         }
 
@@ -586,10 +612,11 @@ public class Query implements AutoCloseable {
             this.connection.onException();
             throw new Sql2oException("Error while executing batch operation: " + e.getMessage(), e);
         } finally {
+            releaseCachedStatement();
             closeConnectionIfNecessary();
         }
 
-        if (Anima.of().isEnableSQLStatistic() && log.isDebugEnabled()) {
+        if (connection.getSql2o().isEnableSQLStatistic() && log.isDebugEnabled()) {
             long end = System.currentTimeMillis();
             log.debug("total: {} ms; executed batch [{}]", end - start, this.getName() == null ? "No name" : this.getName());
         }
@@ -627,6 +654,18 @@ public class Query implements AutoCloseable {
     }
 
     /************** private stuff ***************/
+
+    /**
+     * Give a cached statement back to the connection once the execution is done,
+     * the next execution of this query takes it again.
+     */
+    private void releaseCachedStatement() {
+        if (cachedStatement && preparedStatement != null) {
+            connection.releaseCachedStatement(parsedQuery, returnGeneratedKeys, columnNames, preparedStatement);
+            preparedStatement = null;
+        }
+    }
+
     private void closeConnectionIfNecessary() {
         try {
             if (connection.autoClose) {
@@ -1,5 +1,6 @@
 package org.sql2o;
 
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 
@@ -10,4 +11,15 @@ import java.sql.SQLException;
  */
 public interface ResultSetHandlerFactory<T> {
     ResultSetHandler<T> newResultSetHandler(ResultSetMetaData resultSetMetaData) throws SQLException;
+
+    /**
+     * Get the handler for the result of a statement. Factories that remember the handler
+     * of a sql text can return it without reading the result set metadata.
+     *
+     * @param sql       the executed statement
+     * @param resultSet its result set
+     */
+    default ResultSetHandler<T> newResultSetHandler(String sql, ResultSet resultSet) throws SQLException {
+        return newResultSetHandler(resultSet.getMetaData());
+    }
 }
@@ -0,0 +1,264 @@
+package org.sql2o;
+
+import lombok.extern.slf4j.Slf4j;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.sql2o.quirks.Quirks;
+import org.sql2o.reflection.Setter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates one {@link ResultSetHandler} class per POJO and column layout.
+ * <p>
+ * Columns with a {@link TypedRead} and a public setter method are read with the typed JDBC getter
+ * and passed straight to the setter, the other columns go through {@link Quirks#getRSVal(ResultSet, int)}
+ * and the converting {@link Setter} like the default handler does.
+ */
+@Slf4j
+public final class ResultSetHandlerGenerator {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final boolean AVAILABLE;
+
+    static {
+        boolean available;
+        try {
+            Class.forName("org.objectweb.asm.ClassWriter");
+            available = true;
+        } catch (Throwable e) {
+            available = false;
+        }
+        AVAILABLE = available;
+    }
+
+    // plain names, so this class loads without asm on the classpath
+    private static final String HANDLER   = "org/sql2o/ResultSetHandler";
+    private static final String SETTER    = "org/sql2o/reflection/Setter";
+    private static final String QUIRKS    = "org/sql2o/quirks/Quirks";
+    private static final String RESULTSET = "java/sql/ResultSet";
+    private static final String SELF      = "org/sql2o/ResultSetHandlerGenerator";
+
+    private ResultSetHandlerGenerator() {
+    }
+
+    /**
+     * Generate a handler, or return null when the POJO can not be created by generated code
+     * or class generation is not available.
+     *
+     * @param pojoClass the POJO type
+     * @param setters   converting setters by column index, null for unmapped columns
+     * @param methods   setter methods by column index, null when the column uses its converting setter
+     * @param reads     typed reads by column index, null when the column uses its converting setter
+     * @param quirks    quirks used to read the other columns
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ResultSetHandler<T> generate(Class<?> pojoClass, Setter[] setters, Method[] methods, TypedRead[] reads, Quirks quirks) {
+        if (!AVAILABLE || !isInstantiable(pojoClass)) {
+            return null;
+        }
+        try {
+            String className = pojoClass.getName() + "$Sql2oHandler" + COUNTER.incrementAndGet();
+            byte[] bytes     = generateClass(className.replace('.', '/'), pojoClass, setters, methods, reads);
+
+            Class<?> handlerClass = new HandlerClassLoader(pojoClass.getClassLoader()).define(className, bytes);
+            return (ResultSetHandler<T>) handlerClass.getConstructor(Setter[].class, Quirks.class).newInstance(setters, quirks);
+        } catch (Throwable e) {
+            log.debug("Could not generate result set handler for {}, using the default handler.", pojoClass, e);
+            return null;
+        }
+    }
+
+    /**
+     * Check a setter method can be called from generated code.
+     */
+    static boolean isAccessible(Method method) {
+        return null != method
+                && Modifier.isPublic(method.getModifiers())
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && !Modifier.isStatic(method.getModifiers());
+    }
+
+    /**
+     * Same as {@link org.sql2o.converters.StringConverter} for strings.
+     */
+    public static String trim(String value) {
+        return null == value ? null : value.trim();
+    }
+
+    private static boolean isInstantiable(Class<?> pojoClass) {
+        if (!Modifier.isPublic(pojoClass.getModifiers()) || Modifier.isAbstract(pojoClass.getModifiers())
+                || pojoClass.isInterface() || pojoClass.isArray() || pojoClass.isPrimitive()
+                || (pojoClass.isMemberClass() && !Modifier.isStatic(pojoClass.getModifiers()))) {
+            return false;
+        }
+        try {
+            Constructor<?> constructor = pojoClass.getConstructor();
+            return Modifier.isPublic(constructor.getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static byte[] generateClass(String className, Class<?> pojoClass, Setter[] setters, Method[] methods, TypedRead[] reads) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, "java/lang/Object", new String[]{HANDLER});
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "setters", "[L" + SETTER + ";", null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "quirks", "L" + QUIRKS + ";", null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([L" + SETTER + ";L" + QUIRKS + ";)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, "setters", "[L" + SETTER + ";");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(PUTFIELD, className, "quirks", "L" + QUIRKS + ";");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        String pojo = Type.getInternalName(pojoClass);
+        mv = cw.visitMethod(ACC_PUBLIC, "handle", "(L" + RESULTSET + ";)Ljava/lang/Object;", null,
+                new String[]{"java/sql/SQLException"});
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, pojo);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, pojo, "<init>", "()V", false);
+        mv.visitVarInsn(ASTORE, 2);
+
+        for (int colIdx = 1; colIdx < setters.length; colIdx++) {
+            if (null != methods[colIdx] && null != reads[colIdx]) {
+                typedColumn(mv, pojo, colIdx, methods[colIdx], reads[colIdx]);
+            } else if (null != setters[colIdx]) {
+                convertedColumn(mv, className, colIdx);
+            }
+        }
+
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * pojo.setXxx(rs.getXxx(colIdx)), with a null check for wrapper types and primitive booleans.
+     */
+    private static void typedColumn(MethodVisitor mv, String pojo, int colIdx, Method method, TypedRead read) {
+        Class<?> propertyType = method.getParameterTypes()[0];
+        Type     readType     = Type.getType(read.primitiveType);
+        boolean  wide         = read.primitiveType == long.class || read.primitiveType == double.class;
+
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 1);
+        push(mv, colIdx);
+        mv.visitMethodInsn(INVOKEINTERFACE, RESULTSET, read.getter, "(I)" + readType.getDescriptor(), true);
+
+        Label end = new Label();
+        if (read == TypedRead.STRING) {
+            mv.visitMethodInsn(INVOKESTATIC, SELF, "trim", "(Ljava/lang/String;)Ljava/lang/String;", false);
+        } else if (!propertyType.isPrimitive()) {
+            // stack: pojo, value -> pojo, null or boxed value
+            Label box = new Label();
+            Label set = new Label();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEINTERFACE, RESULTSET, "wasNull", "()Z", true);
+            mv.visitJumpInsn(IFEQ, box);
+            mv.visitInsn(wide ? POP2 : POP);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitJumpInsn(GOTO, set);
+            mv.visitLabel(box);
+            String wrapper = Type.getInternalName(read.wrapperType);
+            mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + readType.getDescriptor() + ")L" + wrapper + ";", false);
+            mv.visitLabel(set);
+        } else if (read == TypedRead.BOOLEAN) {
+            // a null boolean leaves the property untouched, like the converting setter does
+            Label set = new Label();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEINTERFACE, RESULTSET, "wasNull", "()Z", true);
+            mv.visitJumpInsn(IFEQ, set);
+            mv.visitInsn(POP);
+            mv.visitInsn(POP);
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(set);
+        }
+
+        mv.visitMethodInsn(INVOKEVIRTUAL, pojo, method.getName(), Type.getMethodDescriptor(method), false);
+        Class<?> returnType = method.getReturnType();
+        if (returnType == long.class || returnType == double.class) {
+            mv.visitInsn(POP2);
+        } else if (returnType != void.class) {
+            mv.visitInsn(POP);
+        }
+        mv.visitLabel(end);
+    }
+
+    /**
+     * setters[colIdx].setProperty(pojo, quirks.getRSVal(rs, colIdx))
+     */
+    private static void convertedColumn(MethodVisitor mv, String className, int colIdx) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, "setters", "[L" + SETTER + ";");
+        push(mv, colIdx);
+        mv.visitInsn(AALOAD);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, "quirks", "L" + QUIRKS + ";");
+        mv.visitVarInsn(ALOAD, 1);
+        push(mv, colIdx);
+        mv.visitMethodInsn(INVOKEINTERFACE, QUIRKS, "getRSVal", "(L" + RESULTSET + ";I)Ljava/lang/Object;", true);
+        mv.visitMethodInsn(INVOKEINTERFACE, SETTER, "setProperty", "(Ljava/lang/Object;Ljava/lang/Object;)V", true);
+    }
+
+    private static void push(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * Defines a generated handler next to the POJO class, classes of sql2o are taken
+     * from the loader of sql2o when the POJO loader can not see them.
+     */
+    private static final class HandlerClassLoader extends ClassLoader {
+
+        HandlerClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            return ResultSetHandlerGenerator.class.getClassLoader().loadClass(name);
+        }
+    }
+
+}
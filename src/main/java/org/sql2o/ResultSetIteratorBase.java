@@ -25,12 +25,16 @@ public abstract class ResultSetIteratorBase<T> implements Iterator<T> {
         this.rs = rs;
         this.isCaseSensitive = isCaseSensitive;
         this.quirks = quirks;
-        try {
+    }
+
+    /**
+     * The metadata is read on first use, iterators with a cached handler never need it.
+     */
+    protected ResultSetMetaData getMeta() throws SQLException {
+        if (meta == null) {
             meta = rs.getMetaData();
         }
-        catch(SQLException ex) {
-            throw new Sql2oException("Database error: " + ex.getMessage(), ex);
-        }
+        return meta;
     }
 
     // fields needed to properly implement
@@ -94,7 +98,7 @@ public abstract class ResultSetIteratorBase<T> implements Iterator<T> {
     protected abstract T readNext() throws SQLException;
 
     protected String getColumnName(int colIdx) throws SQLException {
-        return quirks.getColumnName(meta, colIdx);
+        return quirks.getColumnName(getMeta(), colIdx);
     }
 
     private final class ResultSetValue<S> {
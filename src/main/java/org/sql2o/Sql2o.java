@@ -32,6 +32,8 @@ public class Sql2o {
     private       boolean             defaultCaseSensitive;
     private       int                 isolationLevel;
     private       ConnectionSource    connectionSource;
+    private       int                 statementCacheSize;
+    private       boolean             enableSQLStatistic = true;
 
     public Sql2o(String jndiLookup) {
         this(JndiDataSource.getJndiDatasource(jndiLookup));
@@ -150,6 +152,43 @@ public class Sql2o {
         this.isolationLevel = isolationLevel;
     }
 
+    /**
+     * Gets the maximum number of prepared statements each {@link Connection} keeps open for reuse.
+     *
+     * @return The statement cache size, 0 when statements are not cached.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of prepared statements each {@link Connection} keeps open for reuse.
+     * Statements are cached by sql text and generated keys mode, the least recently used statement is closed
+     * when the cache is full, and all of them are closed with the connection.
+     * Useful for drivers without their own statement cache.
+     *
+     * @param statementCacheSize The statement cache size, 0 (the default) disables the cache.
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize should be a nonnegative value.");
+        }
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Gets a value indicating if the queries of this instance log their elapsed time at debug level.
+     *
+     * @return true when the elapsed time is logged, the default.
+     */
+    public boolean isEnableSQLStatistic() {
+        return enableSQLStatistic;
+    }
+
+    public void setEnableSQLStatistic(boolean enableSQLStatistic) {
+        this.enableSQLStatistic = enableSQLStatistic;
+    }
+
     /**
      * Opens a connection to the database
      *
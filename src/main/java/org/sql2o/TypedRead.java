@@ -0,0 +1,188 @@
+package org.sql2o;
+
+import org.sql2o.converters.BooleanConverter;
+import org.sql2o.converters.ByteConverter;
+import org.sql2o.converters.Converter;
+import org.sql2o.converters.DoubleConverter;
+import org.sql2o.converters.FloatConverter;
+import org.sql2o.converters.IntegerConverter;
+import org.sql2o.converters.LongConverter;
+import org.sql2o.converters.ShortConverter;
+import org.sql2o.converters.StringConverter;
+
+import org.sql2o.reflection.PrimitiveSetter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * A column that can be read with a typed JDBC getter instead of {@code getObject} and a {@link Converter},
+ * because the getter gives the same value the default converter of the property type would.
+ */
+enum TypedRead {
+
+    BOOLEAN("getBoolean", boolean.class, Boolean.class),
+    BYTE("getByte", byte.class, Byte.class),
+    SHORT("getShort", short.class, Short.class),
+    INT("getInt", int.class, Integer.class),
+    LONG("getLong", long.class, Long.class),
+    FLOAT("getFloat", float.class, Float.class),
+    DOUBLE("getDouble", double.class, Double.class),
+    STRING("getString", String.class, String.class);
+
+    final String   getter;
+    final Class<?> primitiveType;
+    final Class<?> wrapperType;
+
+    TypedRead(String getter, Class<?> primitiveType, Class<?> wrapperType) {
+        this.getter = getter;
+        this.primitiveType = primitiveType;
+        this.wrapperType = wrapperType;
+    }
+
+    /**
+     * Find the typed read of a column, null when the column has to go through {@code getObject}.
+     *
+     * @param propertyType the type of the target property
+     * @param converter    the converter the quirks use for the property type
+     * @param sqlType      the column type, see {@link Types}
+     */
+    static TypedRead of(Class<?> propertyType, Converter<?> converter, int sqlType) {
+        if (null == converter) {
+            return null;
+        }
+        for (TypedRead read : values()) {
+            if (read.primitiveType == propertyType || read.wrapperType == propertyType) {
+                return read.isDefaultConverter(converter) && read.accepts(sqlType) ? read : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the column into a primitive property without boxing, a null column sets 0
+     * like the primitive converters do, except booleans which are left untouched.
+     */
+    void readPrimitive(ResultSet rs, int colIdx, PrimitiveSetter setter, Object pojo) throws SQLException {
+        switch (this) {
+            case BOOLEAN:
+                boolean value = rs.getBoolean(colIdx);
+                if (!rs.wasNull()) {
+                    setter.setBoolean(pojo, value);
+                }
+                break;
+            case BYTE:
+                setter.setByte(pojo, rs.getByte(colIdx));
+                break;
+            case SHORT:
+                setter.setShort(pojo, rs.getShort(colIdx));
+                break;
+            case INT:
+                setter.setInt(pojo, rs.getInt(colIdx));
+                break;
+            case LONG:
+                setter.setLong(pojo, rs.getLong(colIdx));
+                break;
+            case FLOAT:
+                setter.setFloat(pojo, rs.getFloat(colIdx));
+                break;
+            case DOUBLE:
+                setter.setDouble(pojo, rs.getDouble(colIdx));
+                break;
+            default:
+                throw new IllegalStateException("Not a primitive read: " + this);
+        }
+    }
+
+    /**
+     * Read the column as the wrapper type, null when the column is null.
+     */
+    Object readValue(ResultSet rs, int colIdx) throws SQLException {
+        Object value;
+        switch (this) {
+            case BOOLEAN:
+                value = rs.getBoolean(colIdx);
+                break;
+            case BYTE:
+                value = rs.getByte(colIdx);
+                break;
+            case SHORT:
+                value = rs.getShort(colIdx);
+                break;
+            case INT:
+                value = rs.getInt(colIdx);
+                break;
+            case LONG:
+                value = rs.getLong(colIdx);
+                break;
+            case FLOAT:
+                value = rs.getFloat(colIdx);
+                break;
+            case DOUBLE:
+                value = rs.getDouble(colIdx);
+                break;
+            default:
+                String text = rs.getString(colIdx);
+                return text == null ? null : text.trim();
+        }
+        return rs.wasNull() ? null : value;
+    }
+
+    private boolean isDefaultConverter(Converter<?> converter) {
+        switch (this) {
+            case BOOLEAN:
+                return converter.getClass() == BooleanConverter.class;
+            case BYTE:
+                return converter.getClass() == ByteConverter.class;
+            case SHORT:
+                return converter.getClass() == ShortConverter.class;
+            case INT:
+                return converter.getClass() == IntegerConverter.class;
+            case LONG:
+                return converter.getClass() == LongConverter.class;
+            case FLOAT:
+                return converter.getClass() == FloatConverter.class;
+            case DOUBLE:
+                return converter.getClass() == DoubleConverter.class;
+            default:
+                return converter.getClass() == StringConverter.class;
+        }
+    }
+
+    /**
+     * Integral properties only accept columns that always fit, so the getter never fails
+     * where the converter would have truncated.
+     */
+    private boolean accepts(int sqlType) {
+        switch (sqlType) {
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return this == BOOLEAN;
+            case Types.TINYINT:
+                return this != BOOLEAN && this != STRING;
+            case Types.SMALLINT:
+                return this != BOOLEAN && this != STRING && this != BYTE;
+            case Types.INTEGER:
+                return this == INT || this == LONG || this == FLOAT || this == DOUBLE;
+            case Types.BIGINT:
+                return this == LONG || this == FLOAT || this == DOUBLE;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return this == FLOAT || this == DOUBLE;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return this == STRING;
+            default:
+                return false;
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import org.sql2o.Sql2oException;
 import org.sql2o.quirks.Quirks;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -22,6 +23,7 @@ public class TableResultSetIterator extends ResultSetIteratorBase<Row> {
         this.columns = new ArrayList<Column>();
 
         try {
+            ResultSetMetaData meta = getMeta();
             lt.setName(meta.getTableName(1));
 
             for (int colIdx = 1; colIdx <= meta.getColumnCount(); colIdx++){
@@ -86,6 +86,7 @@ public class PojoMetadata {
 
         HashMap<String, Getter> propertyGetters = new HashMap<>();
         HashMap<String, Setter> propertySetters = new HashMap<>();
+        HashMap<String, Method> setterMethods   = new HashMap<>();
         HashMap<String, Field>  fields          = new HashMap<>();
 
         Class<?>             theClass          = clazz;
@@ -104,6 +105,7 @@ public class PojoMetadata {
 
                 propertyGetters.put(propertyName, factoryFacade.newGetter(f));
                 propertySetters.put(propertyName, factoryFacade.newSetter(f));
+                setterMethods.remove(propertyName);
                 fields.put(propertyName, f);
             }
 
@@ -133,12 +135,13 @@ public class PojoMetadata {
                     }
 
                     propertySetters.put(propertyName, factoryFacade.newSetter(m));
+                    setterMethods.put(propertyName, m);
                 }
             }
             theClass = theClass.getSuperclass();
         } while (!theClass.equals(Object.class));
 
-        return new PropertyAndFieldInfo(propertyGetters, propertySetters, objectConstructor);
+        return new PropertyAndFieldInfo(propertyGetters, propertySetters, setterMethods, objectConstructor);
 
     }
 
@@ -160,19 +163,7 @@ public class PojoMetadata {
     }
 
     public Getter getPropertyGetterIfExists(String propertyName) {
-
-        String name = this.caseSensitive ? propertyName : propertyName.toLowerCase();
-
-        if (this.columnMappings.containsKey(name)) {
-            name = this.columnMappings.get(name);
-        }
-
-        if (autoDeriveColumnNames) {
-            name = UnderscoreToCamelCase.convert(name);
-            if (!this.caseSensitive) name = name.toLowerCase();
-        }
-
-        return propertyInfo.propertyGetters.get(name);
+        return propertyInfo.propertyGetters.get(resolvePropertyName(propertyName));
     }
 
     public Setter getPropertySetter(String propertyName) {
@@ -189,7 +180,18 @@ public class PojoMetadata {
     }
 
     public Setter getPropertySetterIfExists(String propertyName) {
+        return propertyInfo.propertySetters.get(resolvePropertyName(propertyName));
+    }
 
+    /**
+     * Get the setter method behind {@link #getPropertySetterIfExists(String)},
+     * null when the property is set through its field.
+     */
+    public Method getPropertySetterMethodIfExists(String propertyName) {
+        return propertyInfo.setterMethods.get(resolvePropertyName(propertyName));
+    }
+
+    private String resolvePropertyName(String propertyName) {
         String name = this.caseSensitive ? propertyName : propertyName.toLowerCase();
 
         if (this.columnMappings.containsKey(name)) {
@@ -200,8 +202,7 @@ public class PojoMetadata {
             name = UnderscoreToCamelCase.convert(name);
             if (!this.caseSensitive) name = name.toLowerCase();
         }
-
-        return propertyInfo.propertySetters.get(name);
+        return name;
     }
 
     public Class<?> getType() {
@@ -240,14 +241,16 @@ public class PojoMetadata {
         // to make HotSpot a little less work for inlining
         final Map<String, Getter> propertyGetters;
         final Map<String, Setter> propertySetters;
+        final Map<String, Method> setterMethods;
         final ObjectConstructor   objectConstructor;
 
         private PropertyAndFieldInfo(
                 Map<String, Getter> propertyGetters, Map<String, Setter> propertySetters,
-                ObjectConstructor objectConstructor) {
+                Map<String, Method> setterMethods, ObjectConstructor objectConstructor) {
 
             this.propertyGetters = propertyGetters;
             this.propertySetters = propertySetters;
+            this.setterMethods = setterMethods;
             this.objectConstructor = objectConstructor;
         }
     }
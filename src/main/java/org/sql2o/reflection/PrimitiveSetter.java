@@ -0,0 +1,37 @@
+package org.sql2o.reflection;
+
+/**
+ * A {@link Setter} of a primitive property that can take the value without boxing.
+ * The defaults box the value and call {@link #setProperty(Object, Object)}.
+ */
+public interface PrimitiveSetter extends Setter {
+
+    default void setBoolean(Object obj, boolean value) {
+        setProperty(obj, value);
+    }
+
+    default void setByte(Object obj, byte value) {
+        setProperty(obj, value);
+    }
+
+    default void setShort(Object obj, short value) {
+        setProperty(obj, value);
+    }
+
+    default void setInt(Object obj, int value) {
+        setProperty(obj, value);
+    }
+
+    default void setLong(Object obj, long value) {
+        setProperty(obj, value);
+    }
+
+    default void setFloat(Object obj, float value) {
+        setProperty(obj, value);
+    }
+
+    default void setDouble(Object obj, double value) {
+        setProperty(obj, value);
+    }
+
+}
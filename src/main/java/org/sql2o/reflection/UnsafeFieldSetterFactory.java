@@ -30,12 +30,16 @@ public class UnsafeFieldSetterFactory implements FieldSetterFactory, ObjectConst
 
         if (!Modifier.isVolatile(field.getModifiers())) {
             if (type == Boolean.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putBoolean(obj, offset, (Boolean) value);
                     }
 
+                    public void setBoolean(Object obj, boolean value) {
+                        theUnsafe.putBoolean(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Boolean.TYPE;
                     }
@@ -54,72 +58,96 @@ public class UnsafeFieldSetterFactory implements FieldSetterFactory, ObjectConst
                 };
             }
             if (type == Byte.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putByte(obj, offset, ((Number) value).byteValue());
                     }
 
+                    public void setByte(Object obj, byte value) {
+                        theUnsafe.putByte(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Byte.TYPE;
                     }
                 };
             }
             if (type == Short.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putShort(obj, offset, ((Number) value).shortValue());
                     }
 
+                    public void setShort(Object obj, short value) {
+                        theUnsafe.putShort(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Short.TYPE;
                     }
                 };
             }
             if (type == Integer.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putInt(obj, offset, ((Number) value).intValue());
                     }
 
+                    public void setInt(Object obj, int value) {
+                        theUnsafe.putInt(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Integer.TYPE;
                     }
                 };
             }
             if (type == Long.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putLong(obj, offset, ((Number) value).longValue());
                     }
 
+                    public void setLong(Object obj, long value) {
+                        theUnsafe.putLong(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Long.TYPE;
                     }
                 };
             }
             if (type == Float.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putFloat(obj, offset, ((Number) value).floatValue());
                     }
 
+                    public void setFloat(Object obj, float value) {
+                        theUnsafe.putFloat(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Float.TYPE;
                     }
                 };
             }
             if (type == Double.TYPE) {
-                return new Setter() {
+                return new PrimitiveSetter() {
                     public void setProperty(Object obj, Object value) {
                         if (value == null) return;
                         theUnsafe.putDouble(obj, offset, ((Number) value).doubleValue());
                     }
 
+                    public void setDouble(Object obj, double value) {
+                        theUnsafe.putDouble(obj, offset, value);
+                    }
+
                     public Class getType() {
                         return Double.TYPE;
                     }
@@ -137,12 +165,16 @@ public class UnsafeFieldSetterFactory implements FieldSetterFactory, ObjectConst
         }
 
         if (type == Boolean.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putBooleanVolatile(obj, offset, (Boolean) value);
                 }
 
+                public void setBoolean(Object obj, boolean value) {
+                    theUnsafe.putBooleanVolatile(obj, offset, value);
+                }
+
                 public Class getType() {
                     return Boolean.TYPE;
                 }
@@ -161,72 +193,96 @@ public class UnsafeFieldSetterFactory implements FieldSetterFactory, ObjectConst
             };
         }
         if (type == Byte.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putByteVolatile(obj, offset, ((Number) value).byteValue());
                 }
 
+                public void setByte(Object obj, byte value) {
+                    theUnsafe.putByteVolatile(obj, offset, value);
+                }
+
                 public Class getType() {
                     return Byte.TYPE;
                 }
             };
         }
         if (type == Short.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putShortVolatile(obj, offset, ((Number) value).shortValue());
                 }
 
+                public void setShort(Object obj, short value) {
+                    theUnsafe.putShortVolatile(obj, offset, value);
+                }
+
                 public Class getType() {
                     return Short.TYPE;
                 }
             };
         }
         if (type == Integer.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putIntVolatile(obj, offset, ((Number) value).intValue());
                 }
 
+                public void setInt(Object obj, int value) {
+                    theUnsafe.putIntVolatile(obj, offset, value);
+                }
+
                 public Class getType() {
                     return Integer.TYPE;
                 }
             };
         }
         if (type == Long.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putLongVolatile(obj, offset, ((Number) value).longValue());
                 }
 
+                public void setLong(Object obj, long value) {
+                    theUnsafe.putLongVolatile(obj, offset, value);
+                }
+
                 public Class getType() {
                     return Long.TYPE;
                 }
             };
         }
         if (type == Float.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putFloatVolatile(obj, offset, ((Number) value).floatValue());
                 }
 
+                public void setFloat(Object obj, float value) {
+                    theUnsafe.putFloatVolatile(obj, offset, value);
+                }
+
                 public Class<?> getType() {
                     return Float.TYPE;
                 }
             };
         }
         if (type == Double.TYPE) {
-            return new Setter() {
+            return new PrimitiveSetter() {
                 public void setProperty(Object obj, Object value) {
                     if (value == null) return;
                     theUnsafe.putDoubleVolatile(obj, offset, ((Number) value).doubleValue());
                 }
 
+                public void setDouble(Object obj, double value) {
+                    theUnsafe.putDoubleVolatile(obj, offset, value);
+                }
+
                 public Class<?> getType() {
                     return Double.TYPE;
                 }
@@ -1,60 +1,87 @@
 package org.sql2o.tools;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * just inherit and implement evaluate
+ * <p>
+ * Lookups of existing values take no lock, a missing value is evaluated once per key.
+ * A bounded cache evicts the oldest keys once it holds more than {@code maxSize} values.
  * User: dimzon
  * Date: 4/6/14
  * Time: 10:35 PM
  */
 public abstract class AbstractCache<K,V,E> {
-    private final Map<K,V> map;
-    private final Lock rl;
-    private final Lock wl;
+    private final ConcurrentMap<K,V> map;
+    private final int maxSize;
+    private final Queue<K> keys;
+
     /***
-     * @param map - allows to define your own map implementation
+     * @param map - allows to define your own map implementation, a map that is not a {@link ConcurrentMap}
+     *            is copied into a {@link ConcurrentHashMap}
      */
     public AbstractCache(Map<K, V> map) {
-        this.map = map;
-        ReadWriteLock rrwl = new ReentrantReadWriteLock();
-        rl = rrwl.readLock();
-        wl = rrwl.writeLock();
+        this.map = map instanceof ConcurrentMap ? (ConcurrentMap<K, V>) map : new ConcurrentHashMap<>(map);
+        this.maxSize = 0;
+        this.keys = null;
     }
 
     public AbstractCache(){
-        this(new HashMap<K, V>());
+        this(new ConcurrentHashMap<K, V>());
     }
 
-    public V get(K key,E param){
-        V value;
-
-        try {
-            // let's take read lock first
-            rl.lock();
-            value = map.get(key);
-        } finally {
-            rl.unlock();
+    /***
+     * @param maxSize - the maximum number of cached values, 0 means unbounded
+     */
+    public AbstractCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize should be a nonnegative value.");
         }
+        this.map = new ConcurrentHashMap<>();
+        this.maxSize = maxSize;
+        this.keys = maxSize > 0 ? new ConcurrentLinkedQueue<>() : null;
+    }
+
+    public V get(K key,E param){
+        V value = map.get(key);
         if(value!=null) return value;
 
-        try {
-            wl.lock();
-            value = map.get(key);
-            if(value==null){
-                value = evaluate(key, param);
-                map.put(key,value);
+        if (keys == null) {
+            return map.computeIfAbsent(key, k -> evaluate(k, param));
+        }
+
+        boolean[] added = new boolean[1];
+        value = map.computeIfAbsent(key, k -> {
+            V evaluated = evaluate(k, param);
+            added[0] = evaluated != null;
+            return evaluated;
+        });
+        if (added[0]) {
+            keys.add(key);
+            while (map.size() > maxSize) {
+                K eldest = keys.poll();
+                if (eldest == null) break;
+                map.remove(eldest);
             }
-        } finally {
-            wl.unlock();
         }
         return value;
     }
 
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+        if (keys != null) {
+            keys.clear();
+        }
+    }
+
     protected abstract V evaluate(K key, E param);
 
 }
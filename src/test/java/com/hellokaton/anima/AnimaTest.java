@@ -2,13 +2,22 @@ package com.hellokaton.anima;
 
 import com.zaxxer.hikari.HikariDataSource;
 import com.hellokaton.anima.converter.LevelConverter;
+import com.hellokaton.anima.core.AnimaCache;
+import com.hellokaton.anima.core.ModelAccessor;
 import com.hellokaton.anima.core.SQLParams;
 import com.hellokaton.anima.dialect.Dialect;
+import com.hellokaton.anima.dialect.MySQLDialect;
+import com.hellokaton.anima.dialect.OracleDialect;
+import com.hellokaton.anima.enums.OrderBy;
+import com.hellokaton.anima.model.User;
 import com.hellokaton.anima.exception.AnimaException;
+import com.hellokaton.anima.utils.AnimaUtils;
 import org.junit.Test;
 import org.sql2o.Sql2o;
 import org.sql2o.quirks.NoQuirks;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 /**
@@ -128,6 +137,26 @@ public class AnimaTest {
         assertFalse(anima.isUseSQLLimit());
     }
 
+    @Test
+    public void testUseMultiValuesInsert() {
+        Anima anima = createH2Anima().useMultiValuesInsert(true);
+        assertTrue(anima.isUseMultiValuesInsert());
+    }
+
+    @Test
+    public void testInsertMulti() {
+        SQLParams sqlParams = SQLParams.builder()
+                .modelClass(User.class)
+                .tableName("users")
+                .columnValues(Arrays.asList(null, "jack", 20))
+                .build();
+
+        assertEquals("INSERT INTO users(user_name, age) VALUES (?, ?), (?, ?)",
+                new MySQLDialect().insertMulti(sqlParams, 2));
+        assertEquals("INSERT ALL INTO users(user_name, age) VALUES (?, ?) INTO users(user_name, age) VALUES (?, ?) SELECT 1 FROM DUAL",
+                new OracleDialect().insertMulti(sqlParams, 2));
+    }
+
     @Test(expected = AnimaException.class)
     public void testAddNullConverter(){
         Anima anima = createH2Anima();
@@ -143,4 +172,27 @@ public class AnimaTest {
         return Anima.open("jdbc:h2:file:~/demo;", "sa", "");
     }
 
+    @Test
+    public void testModelAccessor() {
+        ModelAccessor accessor = AnimaCache.computeModelAccessor(User.class);
+        assertSame(accessor, AnimaCache.computeModelAccessor(User.class));
+        assertEquals(3, accessor.size());
+        assertEquals("user_name", accessor.columnName(1));
+
+        User user = new User(1, "jack", 20);
+        assertEquals(1, accessor.get(user, 0));
+        assertEquals("jack", accessor.get(user, 1));
+        assertEquals(20, accessor.get(user, 2));
+        assertEquals(Arrays.asList(1, "jack", 20), AnimaUtils.toColumnValues(user, true));
+        assertEquals(Arrays.asList("jack", 20), AnimaUtils.toColumnValues(new User("jack", 20), false));
+    }
+
+    @Test
+    public void testSeekCondition() {
+        assertEquals("(age, id) < (?, ?)", new MySQLDialect().seekCondition("age", "id", OrderBy.DESC));
+        assertEquals(2, new MySQLDialect().seekParams(1, 2).length);
+        assertEquals("(age > ? OR (age = ? AND id > ?))", new OracleDialect().seekCondition("age", "id", OrderBy.ASC));
+        assertArrayEquals(new Object[]{1, 1, 2}, new OracleDialect().seekParams(1, 2));
+    }
+
 }
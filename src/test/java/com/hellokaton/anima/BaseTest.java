@@ -55,7 +55,7 @@ public class BaseTest {
     protected static void h2() {
 
         HikariDataSource ds = new HikariDataSource();
-        ds.setJdbcUrl("jdbc:h2:file:~/demo;FILE_LOCK=FS;PAGE_SIZE=1024;CACHE_SIZE=8192");
+        ds.setJdbcUrl("jdbc:h2:file:~/demo;MODE=MySQL;FILE_LOCK=FS;PAGE_SIZE=1024;CACHE_SIZE=8192");
         ds.setUsername("sa");
         ds.setPassword("");
 
@@ -65,13 +65,13 @@ public class BaseTest {
 
         String sql = "DROP TABLE IF EXISTS `users`;\n" +
                 "CREATE TABLE `users` (" +
-                "`id` IDENTITY PRIMARY KEY, " +
+                "`id` int AUTO_INCREMENT PRIMARY KEY, " +
                 "`user_name` varchar(50) NOT NULL, " +
-                "`age` int(11)," +
+                "`age` int(11)" +
                 ");" +
                 "DROP TABLE IF EXISTS `order_info`;\n" +
                 "CREATE TABLE `order_info` (" +
-                "`id` IDENTITY PRIMARY KEY," +
+                "`id` int AUTO_INCREMENT PRIMARY KEY," +
                 "`uid` int(11) NOT NULL," +
                 "`productname` varchar(100) NOT NULL," +
                 "`create_time` datetime NOT NULL" +
@@ -0,0 +1,111 @@
+package com.hellokaton.anima;
+
+import com.hellokaton.anima.cache.LRUEntityCache;
+import com.hellokaton.anima.model.User;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Entity cache of byId and byIds
+ */
+public class EntityCacheTest extends BaseTest {
+
+    @After
+    public void after() {
+        Anima.of().entityCache(null);
+    }
+
+    @Test
+    public void testById() {
+        LRUEntityCache cache = new LRUEntityCache(100, Duration.ofMinutes(1));
+        Anima.of().entityCache(cache);
+
+        Integer id   = new User("cached", 40).save().asInt();
+        User    user = Anima.select().from(User.class).byId(id);
+        assertEquals(1, cache.size());
+
+        Anima.execute("update users set age = 41 where id = ?", id);
+        User cached = Anima.select().from(User.class).byId(id);
+        assertNotSame(user, cached);
+        assertEquals(Integer.valueOf(40), cached.getAge());
+
+        cached.setAge(99);
+        assertEquals(Integer.valueOf(40), Anima.select().from(User.class).byId(id.longValue()).getAge());
+
+        Anima.update().from(User.class).set("age", 42).updateById(id);
+        assertEquals(0, cache.size());
+        assertEquals(Integer.valueOf(42), Anima.select().from(User.class).byId(id).getAge());
+
+        Anima.deleteById(User.class, id);
+        assertEquals(0, cache.size());
+        assertNull(Anima.select().from(User.class).byId(id));
+    }
+
+    @Test
+    public void testByIds() {
+        LRUEntityCache cache = new LRUEntityCache(100, null);
+        Anima.of().entityCache(cache);
+
+        Integer id1 = new User("cached1", 1).save().asInt();
+        Integer id2 = new User("cached2", 2).save().asInt();
+        Integer id3 = new User("cached3", 3).save().asInt();
+
+        Anima.select().from(User.class).byId(id2);
+        assertEquals(1, cache.size());
+
+        List<User> users = Anima.select().from(User.class).byIds(id3, id2, id1, id2);
+        assertEquals(3, users.size());
+        assertEquals("cached3", users.get(0).getUserName());
+        assertEquals("cached2", users.get(1).getUserName());
+        assertEquals("cached1", users.get(2).getUserName());
+        assertEquals(3, cache.size());
+
+        Anima.update().from(User.class).set("age", 10).where("user_name", "cached1").execute();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictOnCommit() throws InterruptedException {
+        LRUEntityCache cache = new LRUEntityCache(100, Duration.ofMinutes(1));
+        Anima.of().entityCache(cache);
+
+        Integer id = new User("committed", 40).save().asInt();
+        Anima.atomic(() -> {
+            Anima.update().from(User.class).set("age", 41).updateById(id);
+            // another thread caches the row as it was before the commit
+            Thread reader = new Thread(() -> Anima.select().from(User.class).byId(id));
+            reader.start();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            assertEquals(1, cache.size());
+        }).catchException(e -> fail(e.getMessage()));
+
+        assertEquals(0, cache.size());
+        assertEquals(Integer.valueOf(41), Anima.select().from(User.class).byId(id).getAge());
+    }
+
+    @Test
+    public void testEviction() throws InterruptedException {
+        LRUEntityCache cache = new LRUEntityCache(2, Duration.ofMillis(50));
+        User           user  = new User(1, "jack", 20);
+        cache.put(User.class, 1L, user);
+        cache.put(User.class, 2L, user);
+        cache.get(User.class, 1L);
+        cache.put(User.class, 3L, user);
+        assertEquals(2, cache.size());
+        assertNull(cache.get(User.class, 2L));
+        assertSame(user, cache.get(User.class, 1L));
+
+        Thread.sleep(100);
+        assertNull(cache.get(User.class, 1L));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.hellokaton.anima;
+
+import com.hellokaton.anima.core.Atomic;
+import com.hellokaton.anima.model.User;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+import java.util.List;
+
+import static com.hellokaton.anima.Anima.select;
+import static org.junit.Assert.*;
+
+/**
+ * Anima instances that are not the default instance
+ */
+public class InstanceTest extends BaseTest {
+
+    private static Anima tenant(String name, int users) {
+        Anima anima = Anima.create("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = anima.getSql2o().open()) {
+            conn.createQuery("DROP TABLE IF EXISTS `users`").executeUpdate();
+            conn.createQuery("CREATE TABLE `users` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                    "`user_name` varchar(50) NOT NULL, `age` int(11))").executeUpdate();
+        }
+        for (int i = 0; i < users; i++) {
+            anima.insert(new User(name, 20 + i));
+        }
+        return anima;
+    }
+
+    @Test
+    public void testCreateKeepsDefault() {
+        Anima defaultAnima = Anima.of();
+        long  count        = select().from(User.class).count();
+
+        Anima tenant = tenant("tenant_a", 2);
+        assertSame(defaultAnima, Anima.of());
+        assertNotSame(defaultAnima, tenant);
+
+        assertEquals(2, tenant.from(User.class).count());
+        assertEquals(count, select().from(User.class).count());
+        assertEquals("tenant_a", tenant.selectFrom("user_name").from(User.class).one().getUserName());
+        assertEquals(Long.valueOf(2), tenant.selectFrom(null).bySQL(Long.class, "select count(*) from users").one());
+    }
+
+    @Test
+    public void testInstancesAreIndependent() {
+        Anima tenantB = tenant("tenant_b", 1);
+        Anima tenantC = tenant("tenant_c", 3);
+
+        assertEquals(1, tenantB.from(User.class).count());
+        assertEquals(3, tenantC.from(User.class).count());
+
+        tenantC.updateFrom(User.class).set(User::getAge, 50).where(User::getAge, 20).execute();
+        assertEquals(0, tenantB.from(User.class).where(User::getAge, 50).count());
+        assertEquals(1, tenantC.from(User.class).where(User::getAge, 50).count());
+
+        tenantC.deleteFrom(User.class).where(User::getAge, 50).execute();
+        assertEquals(1, tenantB.from(User.class).count());
+        assertEquals(2, tenantC.from(User.class).count());
+
+        assertEquals(1, tenantB.executeUpdate("delete from users"));
+        assertEquals(0, tenantB.from(User.class).count());
+        assertEquals(2, tenantC.from(User.class).count());
+    }
+
+    @Test
+    public void testTransaction() {
+        Anima tenant = tenant("tenant_d", 1);
+        long  count  = select().from(User.class).count();
+
+        Atomic atomic = tenant.transaction(() -> {
+            tenant.insert(new User("tx", 30));
+            assertTrue(tenant.context().inTransaction());
+            // the default instance is not in the transaction
+            assertFalse(Anima.of().context().inTransaction());
+            new User("outside", 30).save();
+            throw new RuntimeException("rollback");
+        });
+
+        assertTrue(atomic.isRollback());
+        assertEquals(1, tenant.from(User.class).count());
+        assertEquals(count + 1, select().from(User.class).count());
+        Anima.deleteBatch(User.class, select().from(User.class).where(User::getUserName, "outside").all()
+                .stream().map(User::getId).toArray(Integer[]::new));
+    }
+
+    @Test
+    public void testModelWritesToItsInstance() {
+        Anima tenant = tenant("tenant_h", 1);
+        long  count  = select().from(User.class).count();
+
+        User user = tenant.from(User.class).one();
+        user.setAge(60);
+        assertEquals(1, user.update());
+        assertEquals(1, tenant.from(User.class).where(User::getAge, 60).count());
+
+        User saved = new User("saved", 20);
+        tenant.insert(saved);
+        saved.setId(tenant.from(User.class).where(User::getUserName, "saved").one().getId());
+        assertEquals(1, saved.delete());
+
+        assertEquals(1, tenant.from(User.class).count());
+        assertEquals(count, select().from(User.class).count());
+    }
+
+    @Test
+    public void testTablePrefix() {
+        Anima tenant = tenant("tenant_e", 0);
+        try (Connection conn = tenant.getSql2o().open()) {
+            conn.createQuery("CREATE TABLE `t_users` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                    "`user_name` varchar(50) NOT NULL, `age` int(11))").executeUpdate();
+        }
+        tenant.tablePrefix("t");
+        tenant.insert(new User("prefixed", 20));
+
+        List<User> users = tenant.from(User.class).all();
+        assertEquals(1, users.size());
+        assertEquals("prefixed", users.get(0).getUserName());
+        assertNull(Anima.of().tablePrefix());
+        assertTrue(select().from(User.class).count() > 0);
+    }
+
+    @Test
+    public void testBindSql2o() {
+        Anima tenant = tenant("tenant_f", 2);
+        Sql2o other  = tenant("tenant_g", 4).getSql2o();
+
+        assertEquals(4, tenant.from(User.class).bindSQL2o(other).count());
+        assertEquals(2, tenant.from(User.class).count());
+    }
+
+}
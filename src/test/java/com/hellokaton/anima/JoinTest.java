@@ -2,6 +2,7 @@ package com.hellokaton.anima;
 
 import com.hellokaton.anima.core.Joins;
 import com.hellokaton.anima.enums.OrderBy;
+import com.hellokaton.anima.exception.AnimaException;
 import com.hellokaton.anima.model.Address;
 import com.hellokaton.anima.model.OrderInfo;
 import com.hellokaton.anima.model.User;
@@ -70,6 +71,36 @@ public class JoinTest extends BaseTest {
         Assert.assertNotNull(userDto);
         Assert.assertNotNull(userDto.get(0).getOrders());
     }
+
+    @Test
+    public void testBatchJoin() {
+        List<OrderInfo> orders = Anima.select().from(OrderInfo.class)
+                .join(
+                        Joins.with(User.class).as(OrderInfo::getUser)
+                                .on(OrderInfo::getUid, User::getId)
+                )
+                .order("id asc")
+                .all();
+
+        Assert.assertEquals(4, orders.size());
+        orders.forEach(order -> Assert.assertEquals(order.getUid(), order.getUser().getId()));
+
+        Anima.of().joinBatchSize(1);
+        try {
+            List<UserDto> users = Anima.select().from(UserDto.class).join(
+                    Joins.with(OrderInfo.class).as(UserDto::getOrders)
+                            .on(UserDto::getId, OrderInfo::getUid)
+                            .order(OrderInfo::getId, OrderBy.DESC)
+            ).order("id asc").all();
+
+            Assert.assertEquals(3, users.get(0).getOrders().size());
+            Assert.assertEquals(1, users.get(1).getOrders().size());
+            Assert.assertTrue(users.get(2).getOrders().isEmpty());
+        } finally {
+            Anima.of().joinBatchSize(500);
+        }
+    }
+
     @Test
     public void testOrderBy() {
         // OneToMany
@@ -86,4 +117,13 @@ public class JoinTest extends BaseTest {
         ).byId(1);
 
     }
+
+    @Test(expected = AnimaException.class)
+    public void testPublishJoin() {
+        Anima.select().from(UserDto.class).join(
+                Joins.with(OrderInfo.class).as(UserDto::getOrders)
+                        .on(UserDto::getId, OrderInfo::getUid)
+        ).publish();
+    }
+
 }
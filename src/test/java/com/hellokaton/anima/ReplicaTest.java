@@ -0,0 +1,97 @@
+package com.hellokaton.anima;
+
+import com.hellokaton.anima.core.ReadReplicas;
+import com.hellokaton.anima.enums.ReadBalance;
+import com.hellokaton.anima.model.User;
+import org.junit.After;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.hellokaton.anima.Anima.select;
+import static com.hellokaton.anima.Anima.update;
+import static org.junit.Assert.*;
+
+/**
+ * Reads routed to the read replicas
+ */
+public class ReplicaTest extends BaseTest {
+
+    @After
+    public void after() {
+        Anima.of().stickyReadWindow(Duration.ZERO).replicas(ReadBalance.ROUND_ROBIN);
+    }
+
+    private static Sql2o replica(String name, int users) {
+        Sql2o sql2o = new Sql2o("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = sql2o.open()) {
+            conn.createQuery("DROP TABLE IF EXISTS `users`").executeUpdate();
+            conn.createQuery("CREATE TABLE `users` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                    "`user_name` varchar(50) NOT NULL, `age` int(11))").executeUpdate();
+            for (int i = 0; i < users; i++) {
+                conn.createQuery("INSERT INTO `users` (`user_name`, `age`) VALUES ('replica', 20)").executeUpdate();
+            }
+        }
+        return sql2o;
+    }
+
+    @Test
+    public void testReadFromReplicas() {
+        long primaryCount = select().from(User.class).count();
+
+        Anima.of().replicas(replica("replica1", 1), replica("replica2", 2));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), new HashSet<>(Arrays.asList(
+                select().from(User.class).count(), select().from(User.class).count())));
+        assertTrue(select().from(User.class).all().size() <= 2);
+
+        List<Long> atomicCounts = new ArrayList<>();
+        Anima.atomic(() -> atomicCounts.add(select().from(User.class).count()));
+        assertEquals(Long.valueOf(primaryCount), atomicCounts.get(0));
+    }
+
+    @Test
+    public void testStickyReadWindow() throws InterruptedException {
+        Anima.of().replicas(replica("replica3", 1)).stickyReadWindow(Duration.ofMinutes(1));
+        assertEquals(1, select().from(User.class).count());
+
+        Integer id = new User("sticky", 70).save().asInt();
+        try {
+            assertEquals(Integer.valueOf(70), select().from(User.class).byId(id).getAge());
+            assertEquals(Integer.valueOf(70), select().from(User.class).where(User::getId, id).oneAsync().join().getAge());
+
+            // a thread that only wrote asynchronously reads its write too
+            User[] updated = new User[1];
+            Thread thread  = new Thread(() -> {
+                update().from(User.class).set(User::getAge, 71).where(User::getId, id).executeAsync().join();
+                updated[0] = select().from(User.class).byId(id);
+            });
+            thread.start();
+            thread.join();
+            assertEquals(Integer.valueOf(71), updated[0].getAge());
+        } finally {
+            Anima.deleteById(User.class, id);
+        }
+    }
+
+    @Test
+    public void testLeastInFlight() {
+        Anima.of().replicas(ReadBalance.LEAST_IN_FLIGHT, replica("replica4", 1), replica("replica5", 2));
+        ReadReplicas replicas = Anima.of().replicas();
+        try (Stream<User> users = select().from(User.class).stream()) {
+            users.iterator().hasNext();
+            assertEquals(1, replicas.inFlight(0) + replicas.inFlight(1));
+            long otherCount = replicas.inFlight(0) == 1 ? 2 : 1;
+            assertEquals(otherCount, select().from(User.class).count());
+            assertEquals(otherCount, select().from(User.class).count());
+        }
+        assertEquals(0, replicas.inFlight(0) + replicas.inFlight(1));
+    }
+
+}
@@ -6,6 +6,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Save
@@ -44,4 +45,60 @@ public class SaveTest extends BaseTest {
         Anima.saveBatch(users);
     }
 
+    @Test
+    public void testSaveBatchKeys() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(i % 2 == 0 ? new User("batch" + i, i) : new User("batch" + i, null));
+        }
+        Anima.of().maxBatchRecords(10);
+        try {
+            Anima.saveBatch(users);
+        } finally {
+            Anima.of().maxBatchRecords(1000);
+        }
+
+        Assert.assertEquals(25, Anima.select().from(User.class).like("user_name", "batch%").count());
+        Assert.assertEquals(25, users.stream().map(User::getId).filter(Objects::nonNull).distinct().count());
+        users.forEach(user -> Assert.assertEquals(user.getUserName(),
+                Anima.select().from(User.class).byId(user.getId()).getUserName()));
+    }
+
+    @Test
+    public void testSaveBatchUnbounded() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(i % 2 == 0 ? new User("unbounded" + i, i) : new User("unbounded" + i, null));
+        }
+        Anima.of().maxBatchRecords(0);
+        try {
+            Anima.saveBatch(users);
+        } finally {
+            Anima.of().maxBatchRecords(1000);
+        }
+
+        Assert.assertEquals(25, Anima.select().from(User.class).like("user_name", "unbounded%").count());
+        Assert.assertEquals(25, users.stream().map(User::getId).filter(Objects::nonNull).distinct().count());
+        users.forEach(user -> Assert.assertEquals(user.getUserName(),
+                Anima.select().from(User.class).byId(user.getId()).getUserName()));
+    }
+
+    @Test
+    public void testSaveBatchMultiValues() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(i % 2 == 0 ? new User("multi" + i, i) : new User("multi" + i, null));
+        }
+        Anima.of().useMultiValuesInsert(true).maxBatchRecords(10);
+        try {
+            Anima.saveBatch(users);
+        } finally {
+            Anima.of().useMultiValuesInsert(false).maxBatchRecords(1000);
+        }
+
+        Assert.assertEquals(25, Anima.select().from(User.class).like("user_name", "multi%").count());
+        users.forEach(user -> Assert.assertEquals(user.getAge(),
+                Anima.select().from(User.class).where("user_name", user.getUserName()).one().getAge()));
+    }
+
 }
@@ -1,15 +1,34 @@
 package com.hellokaton.anima;
 
+import com.hellokaton.anima.cache.QueryCache;
+import com.hellokaton.anima.cache.SQLCache;
+import com.hellokaton.anima.core.AnimaQuery;
+import com.hellokaton.anima.dialect.Dialect;
+import com.hellokaton.anima.dialect.MySQLDialect;
 import com.hellokaton.anima.page.Page;
+import com.hellokaton.anima.page.SeekCursor;
+import com.hellokaton.anima.page.SeekPage;
 import com.hellokaton.anima.enums.OrderBy;
 import com.hellokaton.anima.model.User;
+import com.hellokaton.anima.reactive.Subscriber;
+import com.hellokaton.anima.reactive.Subscription;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.hellokaton.anima.Anima.select;
 
@@ -204,6 +223,177 @@ public class SelectTest extends BaseTest {
         select().from(User.class).where(User::getAge).gt(20).order(User::getId, OrderBy.DESC).page(2, 3);
     }
 
+    @Test
+    public void testPageCountModes() {
+        Page<User> userPage = select().from(User.class).order("id desc").withoutCount().page(2, 3);
+        Assert.assertFalse(userPage.isExactTotal());
+        Assert.assertEquals(3, userPage.getRows().size());
+        Assert.assertEquals(2, userPage.getPageNum());
+        Assert.assertTrue(userPage.isHasNextPage());
+        Assert.assertEquals(7, userPage.getTotalRows());
+
+        userPage = select().from(User.class).order("id desc").withoutCount().page(3, 3);
+        Assert.assertEquals(2, userPage.getRows().size());
+        Assert.assertFalse(userPage.isHasNextPage());
+        Assert.assertEquals(8, userPage.getTotalRows());
+
+        userPage = select().from(User.class).cachedCount(Duration.ofMinutes(1)).page(1, 3);
+        Assert.assertTrue(userPage.isExactTotal());
+        userPage = select().from(User.class).cachedCount(Duration.ofMinutes(1)).page(2, 3);
+        Assert.assertFalse(userPage.isExactTotal());
+        Assert.assertEquals(8, userPage.getTotalRows());
+
+        userPage = select().from(User.class).estimatedCount().page(1, 3);
+        Assert.assertEquals(3, userPage.getRows().size());
+        Assert.assertTrue(userPage.getTotalRows() >= 0);
+    }
+
+    @Test
+    public void testEstimatedCountWithoutStatistics() {
+        Dialect dialect = Anima.of().dialect();
+        Anima.of().dialect(new MySQLDialect() {
+            @Override
+            public String estimatedCount() {
+                // like PostgreSQL before the table is analyzed
+                return "SELECT -1 FROM DUAL WHERE ? IS NOT NULL";
+            }
+        });
+        try {
+            Page<User> userPage = select().from(User.class).estimatedCount().page(1, 3);
+            Assert.assertEquals(3, userPage.getRows().size());
+            Assert.assertTrue(userPage.isExactTotal());
+            Assert.assertEquals(select().from(User.class).count(), userPage.getTotalRows());
+        } finally {
+            Anima.of().dialect(dialect);
+        }
+    }
+
+    @Test
+    public void testConcurrentPage() {
+        Anima.of().useConcurrentPage(true);
+        try {
+            Page<User> userPage = select().from(User.class).order("id desc").page(2, 3);
+            Assert.assertEquals(8, userPage.getTotalRows());
+            Assert.assertEquals(3, userPage.getRows().size());
+            Assert.assertEquals(3, userPage.getTotalPages());
+            Assert.assertTrue(userPage.isHasNextPage());
+
+            List<Page<User>> atomicPages = new ArrayList<>();
+            Anima.atomic(() -> atomicPages.add(select().from(User.class).order("id desc").page(2, 3)));
+            Page<User> atomicPage = atomicPages.get(0);
+            Assert.assertEquals(userPage.getTotalRows(), atomicPage.getTotalRows());
+            Assert.assertEquals(userPage.getRows().get(0).getId(), atomicPage.getRows().get(0).getId());
+        } finally {
+            Anima.of().useConcurrentPage(false);
+        }
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        CompletableFuture<List<User>> users = select().from(User.class).allAsync();
+        CompletableFuture<Long>       count = select().from(User.class).countAsync();
+        CompletableFuture<Page<User>> page  = select().from(User.class).order("id desc").pageAsync(2, 3);
+        CompletableFuture<User>       user  = select().from(User.class).where(User::getId).eq(1).oneAsync();
+
+        CompletableFuture.allOf(users, count, page, user).get();
+        Assert.assertEquals(count.get().intValue(), users.get().size());
+        Assert.assertEquals(3, page.get().getRows().size());
+        Assert.assertEquals(Integer.valueOf(1), user.get().getId());
+
+        List<CompletableFuture<Long>> atomicCounts = new ArrayList<>();
+        Anima.atomic(() -> atomicCounts.add(select().from(User.class).countAsync()));
+        Assert.assertTrue(atomicCounts.get(0).isDone());
+        Assert.assertEquals(count.get(), atomicCounts.get(0).get());
+    }
+
+    @Test
+    public void testAsyncOnSaturatedExecutor() throws Exception {
+        ExecutorService executor = Anima.of().executor();
+        ExecutorService small    = Executors.newFixedThreadPool(2);
+        // the default executor is bounded, each running query holds a connection
+        Assert.assertEquals(Runtime.getRuntime().availableProcessors() * 2, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        Anima.of().useConcurrentPage(true).executor(small);
+        try {
+            // every worker runs a page that forks its count query onto the same busy executor
+            List<CompletableFuture<Page<User>>> pages = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                pages.add(select().from(User.class).order("id desc").pageAsync(2, 3));
+            }
+            for (CompletableFuture<Page<User>> page : pages) {
+                Assert.assertEquals(8, page.get(10, TimeUnit.SECONDS).getTotalRows());
+            }
+        } finally {
+            Anima.of().useConcurrentPage(false).executor(executor);
+            small.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPublish() {
+        List<User>         users        = new ArrayList<>();
+        List<Subscription> subscription = new ArrayList<>();
+        boolean[]          completed    = new boolean[1];
+
+        select().from(User.class).order("id").publish().subscribe(new Subscriber<User>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription.add(s);
+            }
+
+            @Override
+            public void onNext(User user) {
+                users.add(user);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assert.fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+
+        Assert.assertEquals(0, users.size());
+        subscription.get(0).request(2);
+        Assert.assertEquals(2, users.size());
+        subscription.get(0).request(Long.MAX_VALUE);
+        Assert.assertTrue(completed[0]);
+        Assert.assertEquals(select().from(User.class).count(), users.size());
+
+        users.clear();
+        completed[0] = false;
+        subscription.clear();
+        select().from(User.class).publish().subscribe(new Subscriber<User>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription.add(s);
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(User user) {
+                users.add(user);
+                subscription.get(0).cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assert.fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        subscription.get(0).request(1);
+        Assert.assertEquals(1, users.size());
+        Assert.assertFalse(completed[0]);
+    }
+
     @Test
     public void testIgnoreAndExclude() {
         select().from(User.class).exclude("age").one();
@@ -226,6 +416,19 @@ public class SelectTest extends BaseTest {
         Assert.assertNotNull(names);
     }
 
+    @Test
+    public void testLazyStream() {
+        try (Stream<User> stream = select().from(User.class).fetchSize(2).where(User::getAge).gt(20).stream()) {
+            Assert.assertEquals(6, stream.count());
+        }
+
+        try (Stream<User> stream = select().from(User.class).order(User::getId, OrderBy.ASC).stream()) {
+            User first = stream.findFirst().orElse(null);
+            Assert.assertNotNull(first);
+            Assert.assertEquals(Integer.valueOf(1), first.getId());
+        }
+    }
+
     @Test
     public void testListMap() {
         List<Map<String, Object>> maps = select().from(User.class).order("id desc").maps();
@@ -239,4 +442,119 @@ public class SelectTest extends BaseTest {
         Assert.assertEquals(8, maps.size());
     }
 
+    @Test
+    public void testSQLCache() {
+        Anima.of().sqlCacheSize(1024);
+        SQLCache sqlCache = Anima.of().sqlCache();
+
+        List<User> users = select().from(User.class).where(User::getAge).gt(10).order(User::getId, OrderBy.DESC).all();
+        Assert.assertEquals(0, sqlCache.hits());
+        Assert.assertEquals(1, sqlCache.misses());
+
+        List<User> others = select().from(User.class).where(User::getAge).gt(20).order(User::getId, OrderBy.DESC).all();
+        Assert.assertEquals(1, sqlCache.hits());
+        Assert.assertEquals(1, sqlCache.misses());
+        Assert.assertTrue(others.size() <= users.size());
+
+        select().from(User.class).where(User::getAge).gt(10).order(User::getId, OrderBy.ASC).all();
+        Assert.assertEquals(2, sqlCache.misses());
+
+        // new shapes evict the old ones once the cache is full
+        Anima.of().sqlCacheSize(1);
+        sqlCache = Anima.of().sqlCache();
+        select().from(User.class).where(User::getAge).gt(10).all();
+        select().from(User.class).where(User::getId).gt(10).all();
+        select().from(User.class).where(User::getId).gt(20).all();
+        Assert.assertEquals(1, sqlCache.size());
+        Assert.assertEquals(1, sqlCache.hits());
+        Anima.of().sqlCacheSize(1024);
+    }
+
+    @Test
+    public void testQueryCache() {
+        QueryCache queryCache = new QueryCache(16);
+        QueryCache previous   = Anima.of().queryCache();
+        Anima.of().queryCache(queryCache);
+        try {
+            long count = select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count();
+            Assert.assertEquals(1, queryCache.misses());
+
+            try (org.sql2o.Connection conn = Anima.of().getSql2o().open()) {
+                conn.createQuery("insert into users (user_name, age) values ('hidden', 60)").executeUpdate();
+            }
+            Assert.assertEquals(count, select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count());
+            Assert.assertEquals(1, queryCache.hits());
+
+            new User("cached", 61).save();
+            Assert.assertEquals(1, queryCache.invalidations());
+            Assert.assertEquals(count + 2, select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count());
+
+            List<User> users = select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).all();
+            users.clear();
+            Assert.assertEquals(count + 2, select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).all().size());
+
+            Anima.atomic(() -> {
+                new User("atomic", 62).save();
+                Assert.assertEquals(count + 3, select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count());
+            });
+            Assert.assertEquals(count + 3, select().from(User.class).where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count());
+        } finally {
+            Anima.of().queryCache(previous);
+            Anima.delete().from(User.class).where(User::getAge).gte(60).execute();
+        }
+    }
+
+    @Test
+    public void testQueryCachePages() {
+        QueryCache queryCache = new QueryCache(16);
+        QueryCache previous   = Anima.of().queryCache();
+        Anima.of().queryCache(queryCache);
+        try {
+            Page<User> byAge = select().from(User.class).order("age desc").cached(Duration.ofMinutes(1)).page(1, 3);
+            Page<User> byId  = select().from(User.class).order("id asc").cached(Duration.ofMinutes(1)).page(1, 3);
+            Assert.assertEquals(2, queryCache.misses());
+            Assert.assertEquals(select().from(User.class).order("id asc").one().getId(), byId.getRows().get(0).getId());
+
+            byAge.getRows().clear();
+            Assert.assertEquals(3, select().from(User.class).order("age desc").cached(Duration.ofMinutes(1)).page(1, 3).getRows().size());
+            Assert.assertEquals(1, queryCache.hits());
+
+            long total = select().from(User.class).count();
+            AnimaQuery<User> query = select().from(User.class);
+            query.where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count();
+            query.where(User::getAge).gt(30).cached(Duration.ofMinutes(1)).count();
+            Assert.assertEquals(2, queryCache.hits());
+            Assert.assertEquals(total, query.count());
+        } finally {
+            Anima.of().queryCache(previous);
+        }
+    }
+
+    @Test
+    public void testSeek() {
+        List<Integer> expected = select().from(User.class).order("age desc, id desc").all()
+                .stream().map(User::getId).collect(Collectors.toList());
+
+        List<Integer> ids    = new ArrayList<>();
+        String        cursor = null;
+        do {
+            SeekPage<User> page = select().from(User.class).seek(User::getAge, OrderBy.DESC, cursor, 3);
+            Assert.assertTrue(page.getRows().size() <= 3);
+            page.getRows().forEach(user -> ids.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (null != cursor);
+        Assert.assertEquals(expected, ids);
+
+        SeekPage<User> first  = select().from(User.class).seek(null, 5);
+        SeekPage<User> second = select().from(User.class).seek(first.getNextCursor(), 5);
+        Assert.assertTrue(first.hasNextPage());
+        Assert.assertTrue(first.getRows().get(4).getId() < second.getRows().get(0).getId());
+    }
+
+    @Test
+    public void testSeekCursor() {
+        Object[] values = {"a.b", 1, 2L, new BigDecimal("1.50"), LocalDate.of(2018, 3, 14)};
+        Assert.assertArrayEquals(values, SeekCursor.decode(SeekCursor.encode(values)));
+    }
+
 }
@@ -0,0 +1,151 @@
+package com.hellokaton.anima;
+
+import com.hellokaton.anima.annotation.Sharded;
+import com.hellokaton.anima.annotation.Table;
+import com.hellokaton.anima.enums.OrderBy;
+import com.hellokaton.anima.enums.ShardStrategy;
+import com.hellokaton.anima.exception.AnimaException;
+import com.hellokaton.anima.model.TenantOrder;
+import com.hellokaton.anima.model.User;
+import com.hellokaton.anima.page.Page;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hellokaton.anima.Anima.select;
+import static org.junit.Assert.*;
+
+/**
+ * Sharded models routed by their shard key
+ */
+public class ShardTest extends BaseTest {
+
+    private Sql2o shard0;
+    private Sql2o shard1;
+
+    @Table(name = "range_orders")
+    @Sharded(key = "tenantId", strategy = ShardStrategy.RANGE, ranges = {100})
+    @NoArgsConstructor
+    @Data
+    @EqualsAndHashCode(callSuper = false)
+    public static class RangeOrder extends Model {
+        private Integer id;
+        private Integer tenantId;
+        private String  title;
+
+        RangeOrder(Integer tenantId, String title) {
+            this.tenantId = tenantId;
+            this.title = title;
+        }
+    }
+
+    private static Sql2o shard(String name) {
+        Sql2o sql2o = new Sql2o("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = sql2o.open()) {
+            for (String table : Arrays.asList("tenant_orders", "range_orders")) {
+                conn.createQuery("DROP TABLE IF EXISTS `" + table + "`").executeUpdate();
+                conn.createQuery("CREATE TABLE `" + table + "` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                        "`tenant_id` int NOT NULL, `title` varchar(50) NOT NULL)").executeUpdate();
+            }
+        }
+        return sql2o;
+    }
+
+    private static long rows(Sql2o shard, String table) {
+        try (Connection conn = shard.open()) {
+            return conn.createQuery("SELECT COUNT(*) FROM " + table).executeScalar(Long.class);
+        }
+    }
+
+    @Before
+    public void shards() {
+        shard0 = shard("shard0");
+        shard1 = shard("shard1");
+        Anima.of().shards(shard0, shard1);
+        Anima.saveBatch(Arrays.asList(
+                new TenantOrder(1, "b"), new TenantOrder(2, "e"), new TenantOrder(3, "a"),
+                new TenantOrder(4, "d"), new TenantOrder(1, "f"), new TenantOrder(2, "c")));
+    }
+
+    @After
+    public void after() {
+        Anima.of().shards(new Sql2o[0]);
+    }
+
+    @Test
+    public void testSaveBatchErrors() {
+        // a failing model saves none of the sharded models
+        Anima.saveBatch(Arrays.asList(new User(), new TenantOrder(5, "skipped")));
+        assertEquals(6, rows(shard0, "tenant_orders") + rows(shard1, "tenant_orders"));
+
+        // a failing shard is logged like the other errors, the models saved before stay
+        Anima.of().shards(new Sql2o[0]);
+        Anima.saveBatch(Arrays.asList(new User("before-shards", 20), new TenantOrder(5, "no shards")));
+        assertEquals(1, select().from(User.class).where(User::getUserName, "before-shards").count());
+        Anima.delete().from(User.class).where(User::getUserName, "before-shards").execute();
+    }
+
+    @Test
+    public void testRouteByShardKey() {
+        assertEquals(3, rows(shard0, "tenant_orders"));
+        assertEquals(3, rows(shard1, "tenant_orders"));
+
+        new TenantOrder(3, "g").save();
+        assertEquals(4, rows(shard1, "tenant_orders"));
+
+        List<TenantOrder> orders = select().from(TenantOrder.class).where(TenantOrder::getTenantId, 1).order("title desc").all();
+        assertEquals(Arrays.asList("f", "b"), orders.stream().map(TenantOrder::getTitle).collect(Collectors.toList()));
+
+        assertEquals(1, Anima.update().from(TenantOrder.class).set("title", "x").where("tenant_id", 2).and("title", "e").execute());
+        assertEquals(1, select().from(TenantOrder.class).where(TenantOrder::getTenantId).eq(2).and("title", "x").count());
+    }
+
+    @Test
+    public void testScatterGather() {
+        assertEquals(6, select().from(TenantOrder.class).count());
+
+        List<TenantOrder> orders = select().from(TenantOrder.class).order(TenantOrder::getTitle, OrderBy.ASC).all();
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"),
+                orders.stream().map(TenantOrder::getTitle).collect(Collectors.toList()));
+
+        Page<TenantOrder> page = select().from(TenantOrder.class).order("title desc").page(2, 4);
+        assertEquals(6, page.getTotalRows());
+        assertEquals(Arrays.asList("b", "a"), page.getRows().stream().map(TenantOrder::getTitle).collect(Collectors.toList()));
+
+        assertEquals("a", select().from(TenantOrder.class).order("title").one().getTitle());
+
+        assertEquals(6, Anima.delete().from(TenantOrder.class).where("title is not null").execute());
+        assertEquals(0, select().from(TenantOrder.class).count());
+    }
+
+    @Test
+    public void testRangeStrategy() {
+        new RangeOrder(99, "low").save();
+        new RangeOrder(100, "high").save();
+        new RangeOrder(250, "higher").save();
+        assertEquals(1, rows(shard0, "range_orders"));
+        assertEquals(2, rows(shard1, "range_orders"));
+    }
+
+    @Test(expected = AnimaException.class)
+    public void testShardKeyRequired() {
+        select().from(TenantOrder.class).maps();
+    }
+
+    @Test(expected = AnimaException.class)
+    public void testNoTransaction() {
+        Anima.atomic(() -> select().from(TenantOrder.class).count()).catchException(e -> {
+            throw (RuntimeException) e;
+        });
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.hellokaton.anima;
+
+import com.hellokaton.anima.core.Atomic;
+import com.hellokaton.anima.core.TransactionOptions;
+import com.hellokaton.anima.enums.Isolation;
+import com.hellokaton.anima.model.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Transaction propagation, savepoints, isolation levels and read-only transactions
+ */
+public class TransactionTest {
+
+    private Anima anima;
+
+    private static Sql2o database(String name) {
+        Sql2o sql2o = new Sql2o("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = sql2o.open()) {
+            conn.createQuery("DROP TABLE IF EXISTS `users`").executeUpdate();
+            conn.createQuery("CREATE TABLE `users` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                    "`user_name` varchar(50) NOT NULL, `age` int(11))").executeUpdate();
+        }
+        return sql2o;
+    }
+
+    @Before
+    public void before() {
+        anima = Anima.create(database("tx_primary"));
+    }
+
+    private long count(String userName) {
+        return anima.from(User.class).where(User::getUserName, userName).count();
+    }
+
+    @Test
+    public void testNestedRollsBackToSavepoint() {
+        List<Atomic> inner = new ArrayList<>();
+        Atomic outer = anima.transaction(() -> {
+            anima.insert(new User("outer", 20));
+            inner.add(anima.transaction(TransactionOptions.nested(), () -> {
+                assertTrue(anima.context().status().isNested());
+                anima.insert(new User("inner", 20));
+                throw new RuntimeException("inner failed");
+            }));
+            anima.insert(new User("after", 20));
+        });
+
+        assertNull(outer.catchAndReturn(e -> e));
+        assertTrue(inner.get(0).isRollback());
+        assertEquals(1, count("outer"));
+        assertEquals(0, count("inner"));
+        assertEquals(1, count("after"));
+        assertFalse(anima.context().inTransaction());
+    }
+
+    @Test
+    public void testNestedCommitsWithOuter() {
+        Atomic outer = anima.transaction(() -> {
+            anima.transaction(TransactionOptions.nested(), () -> anima.insert(new User("inner", 20)));
+            throw new RuntimeException("outer failed");
+        });
+
+        assertTrue(outer.isRollback());
+        assertEquals(0, count("inner"));
+    }
+
+    @Test
+    public void testRequiresNewCommitsOnItsOwn() {
+        Atomic outer = anima.transaction(() -> {
+            anima.insert(new User("outer", 20));
+            Connection outerConn = anima.context().connection();
+            anima.transaction(TransactionOptions.requiresNew(), () -> {
+                assertTrue(anima.context().status().isNewTransaction());
+                assertNotSame(outerConn, anima.context().connection());
+                anima.insert(new User("inner", 20));
+            });
+            assertSame(outerConn, anima.context().connection());
+            throw new RuntimeException("outer failed");
+        });
+
+        assertTrue(outer.isRollback());
+        assertEquals(0, count("outer"));
+        assertEquals(1, count("inner"));
+    }
+
+    @Test
+    public void testRequiredFailureRollsBackOuter() {
+        List<Atomic> inner = new ArrayList<>();
+        Atomic outer = anima.transaction(() -> {
+            anima.insert(new User("outer", 20));
+            inner.add(anima.transaction(() -> {
+                assertFalse(anima.context().status().isNewTransaction());
+                throw new RuntimeException("inner failed");
+            }));
+            assertTrue(anima.context().status().isRollbackOnly());
+        });
+
+        assertTrue(inner.get(0).isRollback());
+        assertNotNull(outer.catchAndReturn(e -> e));
+        assertEquals(0, count("outer"));
+    }
+
+    @Test
+    public void testIsolationLevel() throws Exception {
+        List<Integer> levels = new ArrayList<>();
+        anima.transaction(TransactionOptions.required().isolation(Isolation.SERIALIZABLE),
+                () -> {
+                    try {
+                        levels.add(anima.context().connection().getJdbcConnection().getTransactionIsolation());
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }).catchException(e -> fail(e.getMessage()));
+
+        assertEquals(Integer.valueOf(java.sql.Connection.TRANSACTION_SERIALIZABLE), levels.get(0));
+    }
+
+    @Test
+    public void testReadOnlyRejectsWrites() {
+        Atomic atomic = anima.transaction(TransactionOptions.required().readOnly(true), () -> {
+            assertTrue(anima.context().status().isReadOnly());
+            anima.insert(new User("read-only", 20));
+        });
+
+        assertNotNull(atomic.catchAndReturn(e -> e));
+        assertEquals(0, count("read-only"));
+    }
+
+    @Test
+    public void testReadOnlyRunsOnReplica() {
+        Sql2o replica = database("tx_replica");
+        try (Connection conn = replica.open()) {
+            conn.createQuery("INSERT INTO `users` (`user_name`, `age`) VALUES ('replica', 20)").executeUpdate();
+        }
+        anima.replicas(replica);
+
+        List<Long> counts = new ArrayList<>();
+        anima.transaction(TransactionOptions.required().readOnly(true),
+                () -> counts.add(anima.from(User.class).count()));
+        anima.transaction(() -> counts.add(anima.from(User.class).count()));
+
+        assertEquals(Long.valueOf(1), counts.get(0));
+        assertEquals(Long.valueOf(0), counts.get(1));
+        assertEquals(0, anima.replicas().inFlight(0));
+    }
+
+}
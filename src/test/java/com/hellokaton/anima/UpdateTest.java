@@ -1,8 +1,12 @@
 package com.hellokaton.anima;
 
+import com.hellokaton.anima.model.Attachment;
 import com.hellokaton.anima.model.User;
 import org.junit.Assert;
 import org.junit.Test;
+import org.sql2o.Connection;
+
+import java.util.Date;
 
 /**
  * Save
@@ -66,4 +70,52 @@ public class UpdateTest extends BaseTest {
         user.update();
     }
 
+    @Test
+    public void testUpdateDirtyTracking() {
+        Anima.of().useDirtyTracking(true);
+        try {
+            User user = Anima.select().from(User.class).byId(4);
+            Assert.assertEquals(0, user.update());
+
+            Anima.update().from(User.class).set("user_name", "changed").where("id", 4).execute();
+
+            user.setAge(user.getAge() + 1);
+            Assert.assertEquals(1, user.update());
+            Assert.assertEquals(0, user.update());
+
+            User updated = Anima.select().from(User.class).byId(4);
+            Assert.assertEquals(user.getAge(), updated.getAge());
+            Assert.assertEquals("changed", updated.getUserName());
+        } finally {
+            Anima.of().useDirtyTracking(false);
+        }
+    }
+
+    @Test
+    public void testUpdateDirtyTrackingMutableValues() {
+        try (Connection conn = Anima.of().getSql2o().open()) {
+            conn.createQuery("DROP TABLE IF EXISTS `attachments`").executeUpdate();
+            conn.createQuery("CREATE TABLE `attachments` (`id` int AUTO_INCREMENT PRIMARY KEY, " +
+                    "`content` varbinary(16), `created_at` timestamp)").executeUpdate();
+        }
+        new Attachment(new byte[]{1, 2}, new Date(0)).save();
+
+        Anima.of().useDirtyTracking(true);
+        try {
+            Attachment attachment = Anima.select().from(Attachment.class).one();
+            Assert.assertEquals(0, attachment.update());
+
+            // changed in place, the snapshot keeps the loaded values
+            attachment.getContent()[0] = 9;
+            attachment.getCreatedAt().setTime(60000);
+            Assert.assertEquals(1, attachment.update());
+
+            Attachment updated = Anima.select().from(Attachment.class).one();
+            Assert.assertArrayEquals(new byte[]{9, 2}, updated.getContent());
+            Assert.assertEquals(60000, updated.getCreatedAt().getTime());
+        } finally {
+            Anima.of().useDirtyTracking(false);
+        }
+    }
+
 }
@@ -0,0 +1,31 @@
+package com.hellokaton.anima.model;
+
+import com.hellokaton.anima.Model;
+import com.hellokaton.anima.annotation.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A model with mutable column values
+ */
+@Table(name = "attachments")
+@NoArgsConstructor
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class Attachment extends Model {
+
+    private Integer id;
+
+    private byte[] content;
+
+    private Date createdAt;
+
+    public Attachment(byte[] content, Date createdAt) {
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.hellokaton.anima.model;
+
+import com.hellokaton.anima.Model;
+import com.hellokaton.anima.annotation.Sharded;
+import com.hellokaton.anima.annotation.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Orders split over the shards by tenant
+ */
+@Table(name = "tenant_orders")
+@Sharded(key = "tenantId")
+@NoArgsConstructor
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class TenantOrder extends Model {
+
+    private Integer id;
+
+    private Integer tenantId;
+
+    private String title;
+
+    public TenantOrder(Integer tenantId, String title) {
+        this.tenantId = tenantId;
+        this.title = title;
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.sql2o;
+
+import com.hellokaton.anima.Anima;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLTimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the pooled datasource reuses, bounds and resets its connections.
+ */
+public class PooledDatasourceTest {
+
+    private PooledDatasource dataSource;
+
+    @Before
+    public void before() {
+        dataSource = new PooledDatasource("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", "sa", "", 0, 2);
+        dataSource.setBorrowTimeout(100);
+    }
+
+    @After
+    public void after() {
+        dataSource.close();
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        java.sql.Connection first = dataSource.getConnection();
+        first.close();
+        assertTrue(first.isClosed());
+        first.close();
+
+        java.sql.Connection second = dataSource.getConnection();
+        assertEquals(1, dataSource.getCreatedCount());
+        assertEquals(1, dataSource.getActiveCount());
+        second.close();
+
+        assertEquals(2, dataSource.getBorrowedCount());
+        assertEquals(1, dataSource.getTotalCount());
+        assertEquals(1, dataSource.getIdleCount());
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testBorrowTimeout() throws Exception {
+        java.sql.Connection first  = dataSource.getConnection();
+        java.sql.Connection second = dataSource.getConnection();
+        try {
+            dataSource.getConnection();
+            fail("a third connection should time out");
+        } catch (SQLTimeoutException e) {
+            assertEquals(1, dataSource.getTimeoutCount());
+        }
+        first.close();
+        dataSource.getConnection().close();
+        second.close();
+        assertEquals(2, dataSource.getTotalCount());
+    }
+
+    @Test
+    public void testResetOnReturn() throws Exception {
+        Sql2o sql2o = Anima.open(dataSource).getSql2o();
+        try (org.sql2o.Connection conn = sql2o.open()) {
+            conn.createQuery("create table pool_test (id int primary key)").executeUpdate();
+        }
+
+        try (org.sql2o.Connection conn = sql2o.beginTransaction()) {
+            conn.createQuery("insert into pool_test (id) values (1)").executeUpdate();
+        }
+        assertEquals(1, dataSource.getTotalCount());
+
+        try (org.sql2o.Connection conn = sql2o.open()) {
+            assertTrue(conn.getJdbcConnection().getAutoCommit());
+            assertEquals(Integer.valueOf(0), conn.createQuery("select count(*) from pool_test").executeScalar(Integer.class));
+        }
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        dataSource.setIdleTimeout(1);
+        dataSource.getConnection().close();
+        Thread.sleep(10);
+        dataSource.getConnection().close();
+        assertEquals(1, dataSource.getEvictedCount());
+        assertEquals(2, dataSource.getCreatedCount());
+    }
+
+}
@@ -3,8 +3,10 @@ package org.sql2o;
 import org.junit.Test;
 
 import javax.sql.DataSource;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,4 +37,39 @@ public class QueryTest {
 
     }
 
+    @Test
+    public void testStatementCache() throws SQLException {
+        DataSource          dataSource = mock(DataSource.class);
+        java.sql.Connection jdbcCon    = mock(java.sql.Connection.class);
+        PreparedStatement   first      = mock(PreparedStatement.class);
+        PreparedStatement   second     = mock(PreparedStatement.class);
+
+        when(jdbcCon.isClosed()).thenReturn(false);
+        when(jdbcCon.prepareStatement("select 1")).thenReturn(first);
+        when(jdbcCon.prepareStatement("select 2")).thenReturn(second);
+        when(dataSource.getConnection()).thenReturn(jdbcCon);
+
+        Sql2o sql2o = new Sql2o(dataSource);
+        sql2o.setStatementCacheSize(1);
+
+        Connection con = sql2o.open();
+        for (int i = 0; i < 3; i++) {
+            Query query = con.createQuery("select 1", false);
+            assertSame(first, query.buildPreparedStatement());
+            query.close();
+        }
+        verify(jdbcCon, times(1)).prepareStatement("select 1");
+        verify(first, times(3)).clearParameters();
+        verify(first, never()).close();
+
+        // the least recently used statement is closed when the cache is full
+        Query query = con.createQuery("select 2", false);
+        query.buildPreparedStatement();
+        query.close();
+        verify(first, times(1)).close();
+
+        con.close();
+        verify(second, times(1)).close();
+    }
+
 }
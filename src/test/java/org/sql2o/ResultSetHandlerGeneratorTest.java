@@ -0,0 +1,146 @@
+package org.sql2o;
+
+import org.junit.Test;
+import org.sql2o.quirks.NoQuirks;
+import org.sql2o.reflection.PojoMetadata;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the generated result set handlers read the same values as the default handler.
+ */
+public class ResultSetHandlerGeneratorTest {
+
+    public static class TypedPojo {
+        private int     id;
+        private Long    total;
+        private double  score;
+        private Boolean active;
+        private String  name;
+        private String  memo;
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public Long getTotal() { return total; }
+        public void setTotal(Long total) { this.total = total; }
+        public double getScore() { return score; }
+        public TypedPojo setScore(double score) { this.score = score; return this; }
+        public Boolean getActive() { return active; }
+        public void setActive(Boolean active) { this.active = active; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getMemo() { return memo; }
+        public void setMemo(String memo) { this.memo = memo; }
+    }
+
+    static class FieldPojo {
+        int     id;
+        long    total;
+        double  score;
+        boolean active = true;
+        Integer level;
+        String  name;
+    }
+
+    @Test
+    public void testGeneratedHandler() throws Exception {
+        try (java.sql.Connection conn = DriverManager.getConnection("jdbc:h2:mem:handler;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = conn.createStatement()) {
+
+            statement.execute("create table typed_pojo (id int, total bigint, score double, active boolean, name varchar(20), memo clob)");
+            statement.execute("insert into typed_pojo values (1, 100, 1.5, true, ' jack ', 'a memo')");
+            statement.execute("insert into typed_pojo values (2, null, null, null, null, null)");
+
+            PojoMetadata metadata = new PojoMetadata(TypedPojo.class, false, false, Collections.emptyMap(), true);
+            DefaultResultSetHandlerFactory<TypedPojo> factory = new DefaultResultSetHandlerFactory<>(metadata, new NoQuirks());
+
+            try (ResultSet rs = statement.executeQuery("select * from typed_pojo order by id")) {
+                ResultSetHandler<TypedPojo> handler = factory.newResultSetHandler(rs.getMetaData());
+                assertTrue(handler.getClass().getName().contains("$Sql2oHandler"));
+
+                assertTrue(rs.next());
+                TypedPojo first = handler.handle(rs);
+                assertEquals(1, first.getId());
+                assertEquals(Long.valueOf(100), first.getTotal());
+                assertEquals(1.5, first.getScore(), 0);
+                assertEquals(Boolean.TRUE, first.getActive());
+                assertEquals("jack", first.getName());
+                assertEquals("a memo", first.getMemo());
+
+                assertTrue(rs.next());
+                TypedPojo second = handler.handle(rs);
+                assertEquals(2, second.getId());
+                assertNull(second.getTotal());
+                assertEquals(0, second.getScore(), 0);
+                assertNull(second.getActive());
+                assertNull(second.getName());
+                assertNull(second.getMemo());
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveReads() throws Exception {
+        try (java.sql.Connection conn = DriverManager.getConnection("jdbc:h2:mem:primitive;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = conn.createStatement()) {
+
+            statement.execute("create table field_pojo (id int, total bigint, score double, active boolean, level int, name varchar(20))");
+            statement.execute("insert into field_pojo values (1, 100, 1.5, false, 3, 'jack ')");
+            statement.execute("insert into field_pojo values (2, null, null, null, null, null)");
+
+            PojoMetadata metadata = new PojoMetadata(FieldPojo.class, false, false, Collections.emptyMap(), true);
+            DefaultResultSetHandlerFactory<FieldPojo> factory = new DefaultResultSetHandlerFactory<>(metadata, new NoQuirks());
+
+            try (ResultSet rs = statement.executeQuery("select * from field_pojo order by id")) {
+                ResultSetHandler<FieldPojo> handler = factory.newResultSetHandler(rs.getMetaData());
+
+                assertTrue(rs.next());
+                FieldPojo first = handler.handle(rs);
+                assertEquals(1, first.id);
+                assertEquals(100L, first.total);
+                assertEquals(1.5, first.score, 0);
+                assertFalse(first.active);
+                assertEquals(Integer.valueOf(3), first.level);
+                assertEquals("jack", first.name);
+
+                assertTrue(rs.next());
+                FieldPojo second = handler.handle(rs);
+                assertEquals(2, second.id);
+                assertEquals(0L, second.total);
+                assertEquals(0, second.score, 0);
+                assertTrue(second.active);
+                assertNull(second.level);
+                assertNull(second.name);
+            }
+        }
+    }
+
+    @Test
+    public void testHandlerBySql() throws Exception {
+        try (java.sql.Connection conn = DriverManager.getConnection("jdbc:h2:mem:handler_sql;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = conn.createStatement()) {
+
+            String sql = "select 1 as id, 'jack' as name";
+            PojoMetadata metadata = new PojoMetadata(TypedPojo.class, false, false, Collections.emptyMap(), false);
+            DefaultResultSetHandlerFactory<TypedPojo> factory = new DefaultResultSetHandlerFactory<>(metadata, new NoQuirks());
+
+            ResultSetHandler<TypedPojo> handler;
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                handler = factory.newResultSetHandler(sql, rs);
+            }
+
+            // a repeated statement does not read the metadata again
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getMetaData()).thenThrow(new AssertionError("metadata read"));
+            assertSame(handler, factory.newResultSetHandler(sql, rs));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.sql2o.tools;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AbstractCacheTest {
+
+    @Test
+    public void testEvaluateOncePerKey() throws Exception {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final AbstractCache<Integer, String, Void> cache = new AbstractCache<Integer, String, Void>() {
+            @Override
+            protected String evaluate(Integer key, Void param) {
+                evaluations.incrementAndGet();
+                return "v" + key;
+            }
+        };
+
+        int             threads = 16;
+        ExecutorService pool    = Executors.newFixedThreadPool(threads);
+        CountDownLatch  start   = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals("v" + (i % 10), cache.get(i % 10, null));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            // rethrows an assertion failed on a worker thread
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(10, evaluations.get());
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        AbstractCache<Integer, Integer, Void> cache = new AbstractCache<Integer, Integer, Void>(3) {
+            @Override
+            protected Integer evaluate(Integer key, Void param) {
+                return key * 2;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i * 2), cache.get(i, null));
+        }
+        assertEquals(3, cache.size());
+    }
+
+}